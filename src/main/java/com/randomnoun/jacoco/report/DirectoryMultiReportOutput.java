@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Report output which writes the report files into a directory on the file
+ * system, like {@link org.jacoco.report.FileMultiReportOutput}. In addition
+ * the files already present in the directory can be read, so a report which
+ * is regenerated into the same directory can skip unchanged files. The output
+ * can be used from multiple threads.
+ */
+public class DirectoryMultiReportOutput implements IReadableMultiReportOutput {
+
+	private final File basedir;
+
+	/**
+	 * Creates a new instance for document output in the given base directory.
+	 *
+	 * @param basedir
+	 *            base directory
+	 */
+	public DirectoryMultiReportOutput(final File basedir) {
+		this.basedir = basedir;
+	}
+
+	public OutputStream createFile(final String path) throws IOException {
+		final File file = new File(basedir, path);
+		final File parent = file.getParentFile();
+		parent.mkdirs();
+		if (!parent.isDirectory()) {
+			throw new IOException(
+					String.format("Can't create directory %s.", parent));
+		}
+		return new BufferedOutputStream(new FileOutputStream(file));
+	}
+
+	public InputStream openFile(final String path) throws IOException {
+		final File file = new File(basedir, path);
+		if (!file.isFile()) {
+			return null;
+		}
+		return new BufferedInputStream(new FileInputStream(file));
+	}
+
+	public void close() throws IOException {
+		// nothing to do
+	}
+
+}
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jacoco.report.IMultiReportOutput;
+
+/**
+ * A report output which also provides the files of a previous report at the
+ * same location. Report generators can use it to leave files unchanged which
+ * would be written with the same content again.
+ */
+public interface IReadableMultiReportOutput extends IMultiReportOutput {
+
+	/**
+	 * Opens an existing file of the report for reading.
+	 *
+	 * @param path
+	 *            path to the file, relative to the report root, in the same
+	 *            form as for {@link #createFile(String)}
+	 * @return input stream for the file or <code>null</code> if the file does
+	 *         not exist
+	 * @throws IOException
+	 *             if the file exists but can't be read
+	 */
+	InputStream openFile(String path) throws IOException;
+
+}
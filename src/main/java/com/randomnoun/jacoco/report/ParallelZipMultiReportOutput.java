@@ -0,0 +1,567 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.jacoco.report.IMultiReportOutput;
+
+/**
+ * Report output which writes all report files into a single ZIP archive,
+ * like {@link org.jacoco.report.ZipMultiReportOutput}. The files are
+ * compressed in parallel on a pool of worker threads while the report is
+ * generated. Files can be written from multiple threads, and any number of
+ * files may be open at the same time.
+ *
+ * The archive entries are ordered by path, so the archive doesn't depend on
+ * the order in which the report pages were scheduled. Compressed files are
+ * spooled to a temporary file and copied to the archive when the output is
+ * closed. Only the closed files waiting for a worker, at most
+ * <code>4 * parallelism</code>, are kept in memory; a thread closing a file
+ * blocks while that many are waiting.
+ *
+ * All entries have the same timestamp, so the same report content gives the
+ * same archive. Archives with more than 65535 entries or more than 4 GB use
+ * the ZIP64 format.
+ */
+public class ParallelZipMultiReportOutput implements IMultiReportOutput {
+
+	/** Default timestamp of the entries, 1980-01-01 00:00 UTC */
+	public static final long DEFAULT_TIME = 315532800000L;
+
+	private static final int LOCAL_HEADER = 0x04034b50;
+
+	private static final int CENTRAL_HEADER = 0x02014b50;
+
+	private static final int ZIP64_END = 0x06064b50;
+
+	private static final int ZIP64_LOCATOR = 0x07064b50;
+
+	private static final int END = 0x06054b50;
+
+	private static final int VERSION = 20;
+
+	private static final int VERSION_ZIP64 = 45;
+
+	/** Entry names are UTF-8 encoded */
+	private static final int FLAG_UTF8 = 0x0800;
+
+	private static final int STORED = 0;
+
+	private static final int DEFLATED = 8;
+
+	private static final long MAX_32 = 0xffffffffL;
+
+	private static final int MAX_16 = 0xffff;
+
+	private final OutputStream out;
+
+	private final ExecutorService executor;
+
+	/** Limits the uncompressed files waiting for a worker */
+	private final Semaphore pending;
+
+	private final int dosTime;
+
+	private final int dosDate;
+
+	// all following fields are guarded by the lock
+
+	private final Object lock = new Object();
+
+	private final Set<String> paths = new HashSet<String>();
+
+	/** Compressed files in the spool file, by path */
+	private final Map<String, Entry> entries = new TreeMap<String, Entry>();
+
+	/** Temporary file for the compressed files, created with the first file */
+	private FileChannel spool;
+
+	private long spoolSize;
+
+	/** Number of files created */
+	private int created;
+
+	/** Number of files closed */
+	private int submitted;
+
+	/** Position in the archive */
+	private long offset;
+
+	private IOException failure;
+
+	private volatile boolean closed;
+
+	/**
+	 * Creates a new instance which compresses the files with one worker per
+	 * available processor.
+	 *
+	 * @param out
+	 *            stream to write the archive to
+	 */
+	public ParallelZipMultiReportOutput(final OutputStream out) {
+		this(out, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new instance with the timestamp {@link #DEFAULT_TIME}.
+	 *
+	 * @param out
+	 *            stream to write the archive to
+	 * @param parallelism
+	 *            number of files which are compressed at the same time
+	 */
+	public ParallelZipMultiReportOutput(final OutputStream out,
+			final int parallelism) {
+		this(out, parallelism, DEFAULT_TIME);
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param out
+	 *            stream to write the archive to
+	 * @param parallelism
+	 *            number of files which are compressed at the same time
+	 * @param time
+	 *            timestamp of all entries in milliseconds since the epoch,
+	 *            e.g. the dump time of the execution data. It is stored as
+	 *            UTC, times before 1980 are stored as 1980-01-01 00:00.
+	 */
+	public ParallelZipMultiReportOutput(final OutputStream out,
+			final int parallelism, final long time) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException(
+					"Parallelism must be at least 1: " + parallelism);
+		}
+		this.out = new BufferedOutputStream(out, 1 << 16);
+		this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+			final Thread thread = new Thread(runnable);
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.pending = new Semaphore(4 * parallelism);
+		final LocalDateTime dateTime = LocalDateTime.ofEpochSecond(
+				Math.max(time, DEFAULT_TIME) / 1000, 0, ZoneOffset.UTC);
+		dosTime = dateTime.getHour() << 11 | dateTime.getMinute() << 5
+				| dateTime.getSecond() >> 1;
+		dosDate = (dateTime.getYear() - 1980) << 9
+				| dateTime.getMonthValue() << 5 | dateTime.getDayOfMonth();
+	}
+
+	public OutputStream createFile(final String path) throws IOException {
+		synchronized (lock) {
+			ensureOpen();
+			if (!paths.add(path)) {
+				throw new IOException("Duplicate entry: " + path);
+			}
+			if (spool == null) {
+				spool = FileChannel.open(
+						Files.createTempFile("jacoco-report", ".tmp"),
+						StandardOpenOption.READ, StandardOpenOption.WRITE,
+						StandardOpenOption.DELETE_ON_CLOSE);
+			}
+			created++;
+		}
+		return new EntryStream(path);
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Output closed");
+		}
+	}
+
+	private void submit(final String path, final byte[] data, final int length)
+			throws IOException {
+		synchronized (lock) {
+			submitted++;
+			checkFailure();
+		}
+		try {
+			pending.acquire();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			// the file is lost, close() must not wait for it
+			final IOException failure = new InterruptedIOException();
+			fail(failure);
+			throw failure;
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					spool(new Entry(path, data, length));
+				} catch (final IOException e) {
+					fail(e);
+				} catch (final RuntimeException e) {
+					fail(new IOException(e));
+				} finally {
+					pending.release();
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			pending.release();
+			final IOException failure = new IOException("Output closed", e);
+			fail(failure);
+			throw failure;
+		}
+	}
+
+	private void spool(final Entry entry) throws IOException {
+		final long position;
+		synchronized (lock) {
+			position = spoolSize;
+			spoolSize += entry.compressedSize;
+		}
+		// positional writes of different entries don't need the lock
+		final ByteBuffer buffer = ByteBuffer.wrap(entry.data, 0,
+				(int) entry.compressedSize);
+		while (buffer.hasRemaining()) {
+			spool.write(buffer, position + buffer.position());
+		}
+		// the data is in the spool file, release the memory
+		entry.data = null;
+		entry.spoolOffset = position;
+		synchronized (lock) {
+			entries.put(entry.path, entry);
+			lock.notifyAll();
+		}
+	}
+
+	private void fail(final IOException e) {
+		synchronized (lock) {
+			if (failure == null) {
+				failure = e;
+			}
+			lock.notifyAll();
+		}
+	}
+
+	private void checkFailure() throws IOException {
+		if (failure != null) {
+			throw new IOException("Archive can't be written", failure);
+		}
+	}
+
+	/**
+	 * Waits for all files to be compressed and writes the archive. The
+	 * underlying stream is closed. All files must be closed before.
+	 *
+	 * @throws IOException
+	 *             if a file is still open or can't be compressed, or if the
+	 *             archive can't be written
+	 */
+	public void close() throws IOException {
+		try {
+			synchronized (lock) {
+				if (closed) {
+					return;
+				}
+				closed = true;
+				if (submitted != created) {
+					throw new IOException(
+							(created - submitted) + " files not closed");
+				}
+				while (entries.size() < submitted && failure == null) {
+					try {
+						lock.wait();
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new InterruptedIOException();
+					}
+				}
+				checkFailure();
+				final byte[] buffer = new byte[1 << 16];
+				for (final Entry entry : entries.values()) {
+					entry.offset = offset;
+					writeLocalHeader(entry);
+					copySpool(entry, buffer);
+				}
+				writeCentralDirectory();
+				out.close();
+			}
+		} finally {
+			executor.shutdownNow();
+			synchronized (lock) {
+				if (spool != null) {
+					spool.close();
+				}
+			}
+		}
+	}
+
+	private void copySpool(final Entry entry, final byte[] buffer)
+			throws IOException {
+		long position = entry.spoolOffset;
+		long remaining = entry.compressedSize;
+		while (remaining > 0) {
+			final ByteBuffer chunk = ByteBuffer.wrap(buffer, 0,
+					(int) Math.min(remaining, buffer.length));
+			while (chunk.hasRemaining()) {
+				if (spool.read(chunk, position + chunk.position()) < 0) {
+					throw new IOException("Spool file truncated");
+				}
+			}
+			write(buffer, chunk.position());
+			position += chunk.position();
+			remaining -= chunk.position();
+		}
+	}
+
+	private void writeLocalHeader(final Entry entry) throws IOException {
+		writeInt(LOCAL_HEADER);
+		writeShort(VERSION);
+		writeShort(FLAG_UTF8);
+		writeShort(entry.method);
+		writeShort(dosTime);
+		writeShort(dosDate);
+		writeInt(entry.crc);
+		writeInt(entry.compressedSize);
+		writeInt(entry.size);
+		writeShort(entry.name.length);
+		writeShort(0);
+		write(entry.name, entry.name.length);
+	}
+
+	private void writeCentralDirectory() throws IOException {
+		final long start = offset;
+		for (final Entry entry : entries.values()) {
+			final boolean zip64 = entry.offset >= MAX_32;
+			writeInt(CENTRAL_HEADER);
+			writeShort(VERSION);
+			writeShort(zip64 ? VERSION_ZIP64 : VERSION);
+			writeShort(FLAG_UTF8);
+			writeShort(entry.method);
+			writeShort(dosTime);
+			writeShort(dosDate);
+			writeInt(entry.crc);
+			writeInt(entry.compressedSize);
+			writeInt(entry.size);
+			writeShort(entry.name.length);
+			writeShort(zip64 ? 12 : 0);
+			writeShort(0); // comment
+			writeShort(0); // disk
+			writeShort(0); // internal attributes
+			writeInt(0); // external attributes
+			writeInt(zip64 ? MAX_32 : entry.offset);
+			write(entry.name, entry.name.length);
+			if (zip64) {
+				writeShort(0x0001);
+				writeShort(8);
+				writeLong(entry.offset);
+			}
+		}
+		final long size = offset - start;
+		final int count = entries.size();
+		if (count >= MAX_16 || size >= MAX_32 || start >= MAX_32) {
+			final long end64 = offset;
+			writeInt(ZIP64_END);
+			writeLong(44);
+			writeShort(VERSION_ZIP64);
+			writeShort(VERSION_ZIP64);
+			writeInt(0); // disk
+			writeInt(0); // disk of central directory
+			writeLong(count);
+			writeLong(count);
+			writeLong(size);
+			writeLong(start);
+			writeInt(ZIP64_LOCATOR);
+			writeInt(0); // disk of zip64 end record
+			writeLong(end64);
+			writeInt(1); // number of disks
+		}
+		writeInt(END);
+		writeShort(0); // disk
+		writeShort(0); // disk of central directory
+		writeShort(Math.min(count, MAX_16));
+		writeShort(Math.min(count, MAX_16));
+		writeInt(Math.min(size, MAX_32));
+		writeInt(Math.min(start, MAX_32));
+		writeShort(0); // comment
+	}
+
+	private void write(final byte[] bytes, final long length)
+			throws IOException {
+		out.write(bytes, 0, (int) length);
+		offset += length;
+	}
+
+	private void writeShort(final int value) throws IOException {
+		out.write(value);
+		out.write(value >>> 8);
+		offset += 2;
+	}
+
+	private void writeInt(final long value) throws IOException {
+		writeShort((int) value & MAX_16);
+		writeShort((int) (value >>> 16) & MAX_16);
+	}
+
+	private void writeLong(final long value) throws IOException {
+		writeInt(value & MAX_32);
+		writeInt(value >>> 32);
+	}
+
+	/**
+	 * Stream for the content of a file. The content is compressed when the
+	 * stream is closed.
+	 */
+	private final class EntryStream extends OutputStream {
+
+		private final String path;
+
+		private final Buffer buffer = new Buffer();
+
+		private boolean entryClosed;
+
+		EntryStream(final String path) {
+			this.path = path;
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			ensureEntryOpen();
+			buffer.write(b);
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len)
+				throws IOException {
+			ensureEntryOpen();
+			buffer.write(b, off, len);
+		}
+
+		private void ensureEntryOpen() throws IOException {
+			if (entryClosed) {
+				throw new IOException("Stream closed: " + path);
+			}
+			ensureOpen();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (entryClosed) {
+				return;
+			}
+			entryClosed = true;
+			submit(path, buffer.data(), buffer.size());
+		}
+
+	}
+
+	/**
+	 * Buffer which gives access to its array without copying it.
+	 */
+	private static final class Buffer extends ByteArrayOutputStream {
+
+		byte[] data() {
+			return buf;
+		}
+
+	}
+
+	/**
+	 * A compressed file of the archive.
+	 */
+	private static final class Entry {
+
+		final String path;
+
+		final byte[] name;
+
+		final int method;
+
+		final long crc;
+
+		final long size;
+
+		final long compressedSize;
+
+		byte[] data;
+
+		/** Position of the compressed data in the spool file */
+		long spoolOffset;
+
+		long offset;
+
+		Entry(final String path, final byte[] content, final int length) {
+			this.path = path;
+			name = path.getBytes(StandardCharsets.UTF_8);
+			final CRC32 checksum = new CRC32();
+			checksum.update(content, 0, length);
+			crc = checksum.getValue();
+			size = length;
+			final byte[] compressed = deflate(content, length);
+			if (compressed == null) {
+				// deflate does not pay off, store the file as is
+				method = STORED;
+				data = content;
+				compressedSize = length;
+			} else {
+				method = DEFLATED;
+				data = compressed;
+				compressedSize = compressed.length;
+			}
+		}
+
+		/**
+		 * Compresses the given content, or returns <code>null</code> if the
+		 * compressed content isn't smaller.
+		 */
+		private static byte[] deflate(final byte[] content, final int length) {
+			final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION,
+					true);
+			try {
+				deflater.setInput(content, 0, length);
+				deflater.finish();
+				final byte[] buffer = new byte[length];
+				int compressed = 0;
+				while (!deflater.finished()) {
+					if (compressed == buffer.length) {
+						return null;
+					}
+					compressed += deflater.deflate(buffer, compressed,
+							buffer.length - compressed);
+				}
+				final byte[] result = new byte[compressed];
+				System.arraycopy(buffer, 0, result, 0, compressed);
+				return result;
+			} finally {
+				deflater.end();
+			}
+		}
+
+	}
+
+}
@@ -18,6 +18,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 
+import org.jacoco.core.JaCoCo;
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
 import org.jacoco.core.data.ExecutionData;
@@ -30,9 +31,13 @@ import org.jacoco.report.ISourceFileLocator;
 import org.jacoco.report.JavaNames;
 
 import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
+import com.randomnoun.jacoco.report.internal.html.BranchTooltips;
+import com.randomnoun.jacoco.report.internal.html.Fingerprint;
 import com.randomnoun.jacoco.report.internal.html.HTMLGroupVisitor;
 import com.randomnoun.jacoco.report.internal.html.IHTMLReportContext;
 import com.randomnoun.jacoco.report.internal.html.ILinkable;
+import com.randomnoun.jacoco.report.internal.html.PageManifest;
+import com.randomnoun.jacoco.report.internal.html.PageScheduler;
 import com.randomnoun.jacoco.report.internal.html.index.ElementIndex;
 import com.randomnoun.jacoco.report.internal.html.index.IIndexUpdate;
 import com.randomnoun.jacoco.report.internal.html.page.BundlePage;
@@ -59,13 +64,33 @@ public class HTMLFormatter implements IHTMLReportContext {
 
 	private String outputEncoding = "UTF-8";
 
+	private int parallelism = 1;
+
+	private int maxOpenSourceFiles = 1;
+
+	private int heatGutterRuns = 0;
+
+	private int coverageOverlayRuns = 0;
+
+	private boolean skipUnchangedResources = false;
+
+	private String sharedResources = null;
+
+	private boolean incremental = false;
+
+	private PageManifest pageManifest;
+
 	private Resources resources;
 
 	private ElementIndex index;
 
 	private SessionsPage sessionsPage;
 
-	private Table table;
+	private final ThreadLocal<Table> tables = new ThreadLocal<Table>();
+
+	private PageScheduler pageScheduler;
+
+	private BranchTooltips branchTooltips;
 
 	/**
 	 * New instance with default settings.
@@ -115,6 +140,174 @@ public class HTMLFormatter implements IHTMLReportContext {
 		this.outputEncoding = outputEncoding;
 	}
 
+	/**
+	 * Sets the number of packages that are rendered at the same time. The
+	 * default is 1, which renders the whole report on the calling thread.
+	 * Higher values render every package with its class and source pages as a
+	 * separate task of a fork/join pool. The generated report is identical
+	 * for any parallelism, but the report output and the source file locator
+	 * must then support concurrent access, which is the case for
+	 * {@link org.jacoco.report.FileMultiReportOutput} and
+	 * {@link org.jacoco.report.DirectorySourceFileLocator}.
+	 *
+	 * @param parallelism
+	 *            number of packages rendered in parallel
+	 */
+	public void setParallelism(final int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException(
+					"Parallelism must be at least 1: " + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Sets the number of source files of a package that are read and rendered
+	 * at the same time. The default is 1, which renders the source files one
+	 * after another. Higher values render the source file pages on a pool of
+	 * that many threads, so slow source file access overlaps across files.
+	 * The limit applies to the whole report and bounds the number of source
+	 * files open at any time. The source file locator must support concurrent
+	 * access.
+	 *
+	 * @param maxOpenSourceFiles
+	 *            number of source files rendered at the same time
+	 */
+	public void setMaxOpenSourceFiles(final int maxOpenSourceFiles) {
+		if (maxOpenSourceFiles < 1) {
+			throw new IllegalArgumentException(
+					"Open source files must be at least 1: "
+							+ maxOpenSourceFiles);
+		}
+		this.maxOpenSourceFiles = maxOpenSourceFiles;
+	}
+
+	/**
+	 * Sets the number of runs from which source pages show a single heat
+	 * gutter per line instead of a branch marker for every run. The gutter is
+	 * colored by the share of runs covering the line and its tooltip gives the
+	 * number of fully, partly and not covering runs. This keeps source pages
+	 * of reports with many runs small. The default is 0, which always shows
+	 * the branch markers.
+	 *
+	 * @param heatGutterRuns
+	 *            minimum number of runs for a heat gutter, or 0 to disable
+	 */
+	public void setHeatGutterRuns(final int heatGutterRuns) {
+		if (heatGutterRuns < 0) {
+			throw new IllegalArgumentException(
+					"Heat gutter runs must not be negative: "
+							+ heatGutterRuns);
+		}
+		this.heatGutterRuns = heatGutterRuns;
+	}
+
+	/**
+	 * Sets the number of runs from which source pages only contain the
+	 * combined coverage of all runs. The coverage of every run is written to
+	 * a separate script next to the page, which is only loaded when a run is
+	 * selected on the page. The size of the source pages then no longer grows
+	 * with the number of runs. The default is 0, which always renders the
+	 * coverage of every run into the source pages.
+	 *
+	 * @param coverageOverlayRuns
+	 *            minimum number of runs for an overlay, or 0 to disable
+	 */
+	public void setCoverageOverlayRuns(final int coverageOverlayRuns) {
+		if (coverageOverlayRuns < 0) {
+			throw new IllegalArgumentException(
+					"Coverage overlay runs must not be negative: "
+							+ coverageOverlayRuns);
+		}
+		this.coverageOverlayRuns = coverageOverlayRuns;
+	}
+
+	/**
+	 * Specifies whether static resources which already exist in the report
+	 * with the same content are written again. Skipping them saves the
+	 * writes when a report is regenerated into the same location. Existing
+	 * files can only be checked with an output which implements
+	 * {@link com.randomnoun.jacoco.report.IReadableMultiReportOutput}, like
+	 * {@link com.randomnoun.jacoco.report.DirectoryMultiReportOutput}. The
+	 * default is <code>false</code>.
+	 *
+	 * @param skipUnchangedResources
+	 *            <code>true</code> to skip byte-identical resources
+	 */
+	public void setSkipUnchangedResources(
+			final boolean skipUnchangedResources) {
+		this.skipUnchangedResources = skipUnchangedResources;
+	}
+
+	/**
+	 * Sets a shared folder with the static resources, so multiple reports
+	 * written to the same site can use a single copy of the resources instead
+	 * of a <code>jacoco-resources</code> folder each. The folder is given as a
+	 * link relative to the root of the report, e.g.
+	 * <code>../jacoco-resources</code>. Reports then don't contain any
+	 * resources, the folder has to be populated once with
+	 * {@link #copySharedResources(IMultiReportOutput)}. The default is
+	 * <code>null</code>, which copies the resources into every report.
+	 *
+	 * @param sharedResources
+	 *            relative link to the shared resource folder, or
+	 *            <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the link is absolute, i.e. starts with a slash or a URL
+	 *             scheme like <code>http:</code>
+	 */
+	public void setSharedResources(final String sharedResources) {
+		if (sharedResources != null && !isRelativeLink(sharedResources)) {
+			throw new IllegalArgumentException(
+					"Shared resources must be a relative link: "
+							+ sharedResources);
+		}
+		this.sharedResources = sharedResources;
+	}
+
+	private static boolean isRelativeLink(final String link) {
+		if (link.startsWith("/") || link.startsWith("\\")) {
+			return false;
+		}
+		// a scheme, or a drive letter on Windows, ends before the first colon
+		final int colon = link.indexOf(':');
+		final int slash = link.indexOf('/');
+		return colon < 0 || (slash >= 0 && slash < colon);
+	}
+
+	/**
+	 * Specifies whether pages are only rendered if their content changed since
+	 * the previous report in the same location. The report then keeps a
+	 * manifest with a fingerprint of the inputs of every page, i.e. the
+	 * coverage counters, the source file and the settings of this formatter.
+	 * Existing pages can only be checked with an output which implements
+	 * {@link com.randomnoun.jacoco.report.IReadableMultiReportOutput}, like
+	 * {@link com.randomnoun.jacoco.report.DirectoryMultiReportOutput}, other
+	 * outputs always get all pages. The default is <code>false</code>.
+	 *
+	 * @param incremental
+	 *            <code>true</code> to skip unchanged pages
+	 */
+	public void setIncremental(final boolean incremental) {
+		this.incremental = incremental;
+	}
+
+	/**
+	 * Writes the static resources into the root of the given output, which
+	 * then can be used as the shared resource folder of multiple reports, see
+	 * {@link #setSharedResources(String)}. The output is not closed.
+	 *
+	 * @param output
+	 *            output for the shared resource folder
+	 * @throws IOException
+	 *             if the resources can't be written
+	 */
+	public void copySharedResources(final IMultiReportOutput output)
+			throws IOException {
+		Resources.copyResources(new ReportOutputFolder(output),
+				skipUnchangedResources);
+	}
+
 	// === IHTMLReportContext ===
 
 	public ILanguageNames getLanguageNames() {
@@ -126,8 +319,10 @@ public class HTMLFormatter implements IHTMLReportContext {
 	}
 
 	public Table getTable(IBundleCoverage[] bundles) {
+		Table table = tables.get();
 		if (table == null) {
 			table = createTable(bundles);
+			tables.set(table);
 		}
 		return table;
 	}
@@ -186,9 +381,42 @@ public class HTMLFormatter implements IHTMLReportContext {
 		return index;
 	}
 
+	public PageScheduler getPageScheduler() {
+		return pageScheduler;
+	}
+
+	public BranchTooltips getBranchTooltips() {
+		return branchTooltips;
+	}
+
+	public int getHeatGutterRuns() {
+		return heatGutterRuns;
+	}
+
+	public int getCoverageOverlayRuns() {
+		return coverageOverlayRuns;
+	}
+
+	public PageManifest getPageManifest() {
+		return pageManifest;
+	}
+
 	public Locale getLocale() {
 		return locale;
 	}
+
+	/**
+	 * Returns a fingerprint of all settings which affect the content of the
+	 * pages.
+	 */
+	private String getSettingsFingerprint() {
+		return new Fingerprint().add(JaCoCo.VERSION)
+				.add(HTMLFormatter.class.getPackage().getImplementationVersion())
+				.add(languageNames.getClass().getName())
+				.add(locale.toLanguageTag()).add(footerText)
+				.add(outputEncoding).add(heatGutterRuns)
+				.add(coverageOverlayRuns).add(sharedResources).toHex();
+	}
 	
 	public interface INewReportVisitor extends IReportVisitor {
 		public void visitBundles(final IBundleCoverage[] bundles,
@@ -207,9 +435,15 @@ public class HTMLFormatter implements IHTMLReportContext {
 	public INewReportVisitor createVisitor(final IMultiReportOutput output)
 			throws IOException {
 		final ReportOutputFolder root = new ReportOutputFolder(output);
-		resources = new Resources(root);
-		resources.copyResources();
+		resources = sharedResources == null ? new Resources(root)
+				: new Resources(sharedResources);
+		resources.copyResources(skipUnchangedResources);
 		index = new ElementIndex(root);
+		pageScheduler = new PageScheduler(parallelism, maxOpenSourceFiles);
+		branchTooltips = new BranchTooltips(locale);
+		pageManifest = incremental
+				? PageManifest.load(root, getSettingsFingerprint())
+				: null;
 		
 		return new INewReportVisitor() {
 
@@ -235,7 +469,16 @@ public class HTMLFormatter implements IHTMLReportContext {
 				final BundlePage page = new BundlePage(bundles, null, locator,
 						root, HTMLFormatter.this);
 				createSessionsPage(page);
-				page.render();
+				boolean rendered = false;
+				try {
+					page.render();
+					rendered = true;
+				} finally {
+					// on success the scheduler is closed by visitEnd()
+					if (!rendered) {
+						pageScheduler.close();
+					}
+				}
 			}
 
 			public IReportGroupVisitor visitGroup(final String name)
@@ -253,10 +496,17 @@ public class HTMLFormatter implements IHTMLReportContext {
 			}
 
 			public void visitEnd() throws IOException {
-				if (groupHandler != null) {
-					groupHandler.visitEnd();
+				try {
+					if (groupHandler != null) {
+						groupHandler.visitEnd();
+					}
+					sessionsPage.render();
+					if (pageManifest != null) {
+						pageManifest.write();
+					}
+				} finally {
+					pageScheduler.close();
 				}
-				sessionsPage.render();
 				output.close();
 			}
 		};
@@ -13,11 +13,10 @@
 package com.randomnoun.jacoco.report.internal;
 
 import java.util.BitSet;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Internal utility to create normalized file names from string ids. The file
@@ -33,6 +32,13 @@ import java.util.Set;
  * <li>If unique filenames can't directly created from the ids, additional
  * suffixes are appended.</li>
  * </ul>
+ *
+ * Instances may be used by multiple threads. Suffixes are assigned in the
+ * order in which colliding ids are first requested. To get the same names
+ * however threads are scheduled, all ids are requested in a single sequential
+ * pass before work is split across threads: report pages reserve their file
+ * names when they are created, which happens before they are rendered
+ * concurrently, see {@link ReportOutputFolder#reserve(String)}.
  */
 class NormalizedFileNames {
 
@@ -46,19 +52,20 @@ class NormalizedFileNames {
 		}
 	}
 
-	private final Map<String, String> mapping = new HashMap<String, String>();
+	private final ConcurrentMap<String, String> mapping = new ConcurrentHashMap<String, String>();
 
-	private final Set<String> usedNames = new HashSet<String>();
+	private final Set<String> usedNames = ConcurrentHashMap.newKeySet();
 
 	public String getFileName(final String id) {
-		String name = mapping.get(id);
+		final String name = mapping.get(id);
 		if (name != null) {
 			return name;
 		}
-		name = replaceIllegalChars(id);
-		name = ensureUniqueness(name);
-		mapping.put(id, name);
-		return name;
+		return mapping.computeIfAbsent(id, this::createFileName);
+	}
+
+	private String createFileName(final String id) {
+		return ensureUniqueness(replaceIllegalChars(id));
 	}
 
 	private String replaceIllegalChars(final String s) {
@@ -80,11 +87,11 @@ class NormalizedFileNames {
 		String unique = s;
 		String lower = unique.toLowerCase(Locale.ENGLISH);
 		int idx = 1;
-		while (usedNames.contains(lower)) {
+		// add() reserves the name atomically, even for concurrent callers
+		while (!usedNames.add(lower)) {
 			unique = s + '~' + idx++;
 			lower = unique.toLowerCase(Locale.ENGLISH);
 		}
-		usedNames.add(lower);
 		return unique;
 	}
 
@@ -13,15 +13,19 @@
 package com.randomnoun.jacoco.report.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jacoco.report.IMultiReportOutput;
 
+import com.randomnoun.jacoco.report.IReadableMultiReportOutput;
+
 /**
  * Logical representation of a folder in the output structure. This utility
  * ensures valid and unique file names and helps to create relative links.
+ * Folders may be used by multiple threads to create files and sub-folders.
  */
 public class ReportOutputFolder {
 
@@ -31,8 +35,11 @@ public class ReportOutputFolder {
 
 	private final String path;
 
+	/** Number of folders above this folder, 0 for the root folder */
+	private final int depth;
+
 	/** Cached sub-folder instances to guarantee stable normalization */
-	private final Map<String, ReportOutputFolder> subFolders = new HashMap<String, ReportOutputFolder>();
+	private final ConcurrentMap<String, ReportOutputFolder> subFolders = new ConcurrentHashMap<String, ReportOutputFolder>();
 
 	private final NormalizedFileNames fileNames;
 
@@ -57,6 +64,7 @@ public class ReportOutputFolder {
 		this.output = output;
 		this.parent = parent;
 		this.path = path;
+		this.depth = parent == null ? 0 : parent.depth + 1;
 		fileNames = new NormalizedFileNames();
 	}
 
@@ -69,14 +77,28 @@ public class ReportOutputFolder {
 	 */
 	public ReportOutputFolder subFolder(final String name) {
 		final String normalizedName = normalize(name);
-		ReportOutputFolder folder = subFolders.get(normalizedName);
+		final ReportOutputFolder folder = subFolders.get(normalizedName);
 		if (folder != null) {
 			return folder;
 		}
-		folder = new ReportOutputFolder(output, this,
-				path + normalizedName + "/");
-		subFolders.put(normalizedName, folder);
-		return folder;
+		return subFolders.computeIfAbsent(normalizedName,
+				n -> new ReportOutputFolder(output, this, path + n + "/"));
+	}
+
+	/**
+	 * Reserves the normalized name for the given local name of a file or
+	 * folder. Names which normalize to the same name get unique suffixes in
+	 * the order they are reserved, so all names of a folder must be reserved
+	 * by a single thread before the folder is used concurrently. Later calls
+	 * with the same local name return the same normalized name from any
+	 * thread.
+	 *
+	 * @param name
+	 *            local name of the file or folder
+	 * @return normalized local name
+	 */
+	public String reserve(final String name) {
+		return normalize(name);
 	}
 
 	/**
@@ -92,6 +114,25 @@ public class ReportOutputFolder {
 		return output.createFile(path + normalize(name));
 	}
 
+	/**
+	 * Opens an existing file in this folder with the given local name, if the
+	 * report output supports reading files.
+	 *
+	 * @param name
+	 *            local name of the file
+	 * @return input stream for the file or <code>null</code> if the file does
+	 *         not exist or the output can't be read
+	 * @throws IOException
+	 *             if the file exists but can't be read
+	 */
+	public InputStream openFile(final String name) throws IOException {
+		if (!(output instanceof IReadableMultiReportOutput)) {
+			return null;
+		}
+		return ((IReadableMultiReportOutput) output)
+				.openFile(path + normalize(name));
+	}
+
 	/**
 	 * Returns a link relative to a given base to a resource within this folder.
 	 *
@@ -104,20 +145,56 @@ public class ReportOutputFolder {
 	 *             if this folder and the base do not have the same root
 	 */
 	public String getLink(final ReportOutputFolder base, final String name) {
-		if (base.isAncestorOf(this)) {
-			return this.path.substring(base.path.length()) + normalize(name);
+		// find the closest common ancestor, counting the levels up from base
+		ReportOutputFolder target = this;
+		ReportOutputFolder source = base;
+		int up = 0;
+		while (source.depth > target.depth) {
+			source = source.parent;
+			up++;
+		}
+		while (target.depth > source.depth) {
+			target = target.parent;
 		}
-		if (base.parent == null) {
-			throw new IllegalArgumentException("Folders with different roots.");
+		while (source != target) {
+			if (source.parent == null) {
+				throw new IllegalArgumentException(
+						"Folders with different roots.");
+			}
+			source = source.parent;
+			target = target.parent;
+			up++;
 		}
-		return "../" + this.getLink(base.parent, name);
+		final String normalizedName = normalize(name);
+		final StringBuilder link = new StringBuilder(3 * up
+				+ path.length() - target.path.length()
+				+ normalizedName.length());
+		for (int i = 0; i < up; i++) {
+			link.append("../");
+		}
+		link.append(path, target.path.length(), path.length());
+		link.append(normalizedName);
+		return link.toString();
 	}
 
-	private boolean isAncestorOf(final ReportOutputFolder folder) {
-		if (this == folder) {
-			return true;
+	/**
+	 * Returns a link relative to this folder to a location which is given
+	 * relative to the root folder. Unlike files within the report the path is
+	 * used as is, so it may also point outside of the report.
+	 *
+	 * @param rootPath
+	 *            path relative to the root folder, with <code>/</code> as
+	 *            separator
+	 * @return relative link
+	 */
+	public String getRootLink(final String rootPath) {
+		final StringBuilder link = new StringBuilder(3 * depth
+				+ rootPath.length());
+		for (int i = 0; i < depth; i++) {
+			link.append("../");
 		}
-		return folder.parent == null ? false : isAncestorOf(folder.parent);
+		link.append(rootPath);
+		return link.toString();
 	}
 
 	private String normalize(final String name) {
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jacoco.core.analysis.ICounter;
+
+/**
+ * Tooltips of the branch markers and heat gutters in source pages. Only a few
+ * distinct branch counters exist in a report, so the tooltips are created once
+ * per bundle and counter and shared by all source pages of the report. The
+ * cache is limited to lines with less than {@value #CACHED_BRANCHES} branches,
+ * tooltips for larger counters are created on every call. Heat gutter
+ * tooltips are cached per distinct combination of run counts below 65536.
+ *
+ * Instances are thread safe.
+ */
+public class BranchTooltips {
+
+	/** Tooltips are cached for lines with less branches than this */
+	static final int CACHED_BRANCHES = 32;
+
+	private final Locale locale;
+
+	private final ConcurrentMap<String, AtomicReferenceArray<String>> tooltips = new ConcurrentHashMap<String, AtomicReferenceArray<String>>();
+
+	private final ConcurrentMap<Long, String> heatTooltips = new ConcurrentHashMap<Long, String>();
+
+	/**
+	 * Creates a new empty cache.
+	 *
+	 * @param locale
+	 *            locale for number formatting
+	 */
+	public BranchTooltips(final Locale locale) {
+		this.locale = locale;
+	}
+
+	/**
+	 * Returns the tooltip for the branches of a line.
+	 *
+	 * @param bundleName
+	 *            name of the bundle the line belongs to
+	 * @param branches
+	 *            branch counter of the line, must not be empty
+	 * @return tooltip text
+	 */
+	public String get(final String bundleName, final ICounter branches) {
+		final int missed = branches.getMissedCount();
+		final int total = branches.getTotalCount();
+		if (total >= CACHED_BRANCHES) {
+			return create(bundleName, branches.getStatus(), missed, total);
+		}
+		AtomicReferenceArray<String> cache = tooltips.get(bundleName);
+		if (cache == null) {
+			cache = tooltips.computeIfAbsent(bundleName,
+					k -> new AtomicReferenceArray<String>(
+							CACHED_BRANCHES * CACHED_BRANCHES));
+		}
+		final int key = missed * CACHED_BRANCHES + total;
+		String tooltip = cache.get(key);
+		if (tooltip == null) {
+			// concurrent callers might create equal strings, either one is kept
+			tooltip = create(bundleName, branches.getStatus(), missed, total);
+			cache.lazySet(key, tooltip);
+		}
+		return tooltip;
+	}
+
+	/**
+	 * Returns the tooltip of a heat gutter, which summarizes the coverage of
+	 * a line in all runs.
+	 *
+	 * @param fully
+	 *            number of runs which fully cover the line
+	 * @param partly
+	 *            number of runs which partly cover the line
+	 * @param missed
+	 *            number of runs which do not cover the line
+	 * @param runs
+	 *            number of runs in the report
+	 * @return tooltip text
+	 */
+	public String getHeat(final int fully, final int partly, final int missed,
+			final int runs) {
+		if ((fully | partly | missed) >>> 16 != 0) {
+			// counts which don't fit the 16 bit fields of the key
+			return createHeat(fully, partly, missed, runs);
+		}
+		// the number of runs is fixed for a report
+		final Long key = Long.valueOf(
+				((long) fully << 32) | ((long) partly << 16) | missed);
+		return heatTooltips.computeIfAbsent(key,
+				k -> createHeat(fully, partly, missed, runs));
+	}
+
+	private String createHeat(final int fully, final int partly,
+			final int missed, final int runs) {
+		return String.format(locale,
+				"%1$d of %4$d runs fully covered, %2$d partly covered, %3$d not covered.",
+				Integer.valueOf(fully), Integer.valueOf(partly),
+				Integer.valueOf(missed), Integer.valueOf(runs));
+	}
+
+	private String create(final String bundleName, final int status,
+			final int missed, final int total) {
+		return bundleName + ": " + getText(status, missed, total);
+	}
+
+	/**
+	 * Returns the tooltip text for the branches of a line without the bundle
+	 * name, which is prefixed as <code>name + ": "</code>. Used by script
+	 * overlays which add the name of the selected run themselves.
+	 *
+	 * @param missed
+	 *            number of missed branches
+	 * @param total
+	 *            total number of branches, must not be 0
+	 * @return tooltip text
+	 */
+	public String getText(final int missed, final int total) {
+		final int status = missed == total ? ICounter.NOT_COVERED
+				: missed == 0 ? ICounter.FULLY_COVERED
+						: ICounter.PARTLY_COVERED;
+		return getText(status, missed, total);
+	}
+
+	private String getText(final int status, final int missed,
+			final int total) {
+		final Integer m = Integer.valueOf(missed);
+		final Integer t = Integer.valueOf(total);
+		switch (status) {
+		case ICounter.NOT_COVERED:
+			return String.format(locale, "All %2$d branches missed.", m, t);
+		case ICounter.FULLY_COVERED:
+			return String.format(locale, "All %2$d branches covered.", m, t);
+		default:
+			return String.format(locale, "%1$d of %2$d branches missed.", m,
+					t);
+		}
+	}
+
+}
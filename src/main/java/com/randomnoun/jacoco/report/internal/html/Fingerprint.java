@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
+
+/**
+ * Digest over all inputs of a report page. Pages with the same fingerprint
+ * render to the same content. Values are added with their length or a
+ * <code>null</code> marker, so different sequences of values can't result in
+ * the same input for the digest.
+ */
+public final class Fingerprint {
+
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private static final CounterEntity[] ENTITIES = CounterEntity.values();
+
+	private final MessageDigest digest;
+
+	private final byte[] buffer = new byte[4];
+
+	/**
+	 * Creates a new empty fingerprint.
+	 */
+	public Fingerprint() {
+		try {
+			digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * Adds an integer value.
+	 *
+	 * @param value
+	 *            value to add
+	 * @return this fingerprint
+	 */
+	public Fingerprint add(final int value) {
+		buffer[0] = (byte) (value >>> 24);
+		buffer[1] = (byte) (value >>> 16);
+		buffer[2] = (byte) (value >>> 8);
+		buffer[3] = (byte) value;
+		digest.update(buffer, 0, 4);
+		return this;
+	}
+
+	/**
+	 * Adds a boolean value.
+	 *
+	 * @param value
+	 *            value to add
+	 * @return this fingerprint
+	 */
+	public Fingerprint add(final boolean value) {
+		digest.update(value ? (byte) 1 : (byte) 0);
+		return this;
+	}
+
+	/**
+	 * Adds a string value.
+	 *
+	 * @param value
+	 *            value to add, may be <code>null</code>
+	 * @return this fingerprint
+	 */
+	public Fingerprint add(final String value) {
+		if (value == null) {
+			return add(-1);
+		}
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		add(bytes.length);
+		digest.update(bytes);
+		return this;
+	}
+
+	/**
+	 * Adds all characters of a reader while they are copied to the given
+	 * writer, so the text needs not be read twice for the fingerprint and the
+	 * page content. The length of the text is added after the text, so this
+	 * must be the last value of variable length of the fingerprint.
+	 *
+	 * @param reader
+	 *            reader for the text, is not closed
+	 * @param copy
+	 *            writer which receives all characters of the text
+	 * @return this fingerprint
+	 * @throws IOException
+	 *             if the text can't be read or copied
+	 */
+	public Fingerprint add(final Reader reader, final Writer copy)
+			throws IOException {
+		final char[] chars = new char[8192];
+		final byte[] bytes = new byte[2 * chars.length];
+		long length = 0;
+		int len;
+		while ((len = reader.read(chars)) != -1) {
+			for (int i = 0; i < len; i++) {
+				bytes[2 * i] = (byte) (chars[i] >>> 8);
+				bytes[2 * i + 1] = (byte) chars[i];
+			}
+			digest.update(bytes, 0, 2 * len);
+			copy.write(chars, 0, len);
+			length += len;
+		}
+		return add((int) (length >>> 32)).add((int) length);
+	}
+
+	/**
+	 * Adds the missed and covered items of a counter.
+	 *
+	 * @param counter
+	 *            counter to add
+	 * @return this fingerprint
+	 */
+	public Fingerprint add(final ICounter counter) {
+		return add(counter.getMissedCount()).add(counter.getCoveredCount());
+	}
+
+	/**
+	 * Adds the counters of all entities of a coverage node.
+	 *
+	 * @param node
+	 *            node to add, may be <code>null</code>
+	 * @return this fingerprint
+	 */
+	public Fingerprint add(final ICoverageNode node) {
+		add(node != null);
+		if (node != null) {
+			for (final CounterEntity entity : ENTITIES) {
+				add(node.getCounter(entity));
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the counters of the coverage nodes of all runs.
+	 *
+	 * @param nodes
+	 *            node per run, entries may be <code>null</code>
+	 * @return this fingerprint
+	 */
+	public Fingerprint add(final ICoverageNode[] nodes) {
+		add(nodes.length);
+		for (final ICoverageNode node : nodes) {
+			add(node);
+		}
+		return this;
+	}
+
+	/**
+	 * Completes the fingerprint. No values can be added afterwards.
+	 *
+	 * @return digest of all values as a hex string
+	 */
+	public String toHex() {
+		final byte[] bytes = digest.digest();
+		final char[] hex = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			hex[2 * i] = HEX[(bytes[i] >>> 4) & 0xf];
+			hex[2 * i + 1] = HEX[bytes[i] & 0xf];
+		}
+		return new String(hex);
+	}
+
+}
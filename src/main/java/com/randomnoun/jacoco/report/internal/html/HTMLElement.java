@@ -198,6 +198,86 @@ public class HTMLElement extends XMLElement {
 		return span;
 	}
 
+	/**
+	 * Creates a 'span' element with a constant class attribute like the style
+	 * names defined in {@link com.randomnoun.jacoco.report.internal.html.resources.Styles}.
+	 * The class attribute is written without quoting, so it must not contain
+	 * any markup characters.
+	 *
+	 * @param classattr
+	 *            value of the class attribute
+	 * @return 'span' element
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public HTMLElement styledSpan(final String classattr) throws IOException {
+		final HTMLElement span = span();
+		span.plainAttr("class", classattr);
+		return span;
+	}
+
+	/**
+	 * Creates a 'span' element with a constant class attribute and id. Both
+	 * attributes are written without quoting, so they must not contain any
+	 * markup characters.
+	 *
+	 * @param classattr
+	 *            value of the class attribute
+	 * @param idattr
+	 *            value of the id attribute
+	 * @return 'span' element
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public HTMLElement styledSpan(final String classattr, final String idattr)
+			throws IOException {
+		final HTMLElement span = styledSpan(classattr);
+		span.plainAttr("id", idattr);
+		return span;
+	}
+
+	/**
+	 * Creates a 'span' element with a constant class attribute and an id taken
+	 * from the first characters of the given buffer. Both attributes are
+	 * written without quoting, so they must not contain any markup characters.
+	 *
+	 * @param classattr
+	 *            value of the class attribute
+	 * @param idattr
+	 *            buffer with the value of the id attribute
+	 * @param idlength
+	 *            length of the id
+	 * @return 'span' element
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public HTMLElement styledSpan(final String classattr, final char[] idattr,
+			final int idlength) throws IOException {
+		final HTMLElement span = styledSpan(classattr);
+		span.plainAttr("id", idattr, idlength);
+		return span;
+	}
+
+	/**
+	 * Adds a 'span' element with a constant class attribute, an optional title
+	 * and a single space as content, like the markers in the gutter of source
+	 * lines. No element instance is created, so this is cheap enough to be
+	 * called for every line. The class attribute is written without quoting,
+	 * so it must not contain any markup characters.
+	 *
+	 * @param classattr
+	 *            value of the class attribute
+	 * @param titleattr
+	 *            value of the title attribute or <code>null</code>
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void marker(final String classattr, final String titleattr)
+			throws IOException {
+		// the space is required, empty spans don't take any space in the layout
+		leaf("span", "class", classattr, "title", titleattr, " ");
+	}
+
 	/**
 	 * Creates a 'div' element.
 	 *
@@ -407,6 +487,36 @@ public class HTMLElement extends XMLElement {
 		img.close();
 	}
 
+	/**
+	 * Creates a 'select' element.
+	 *
+	 * @param onchangeattr
+	 *            value of the onchange attribute
+	 * @return 'select' element
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public HTMLElement select(final String onchangeattr) throws IOException {
+		final HTMLElement select = element("select");
+		select.attr("onchange", onchangeattr);
+		return select;
+	}
+
+	/**
+	 * Creates a 'option' element.
+	 *
+	 * @param valueattr
+	 *            value of the value attribute
+	 * @return 'option' element
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public HTMLElement option(final String valueattr) throws IOException {
+		final HTMLElement option = element("option");
+		option.attr("value", valueattr);
+		return option;
+	}
+
 	/**
 	 * Creates a JavaScript 'script' element.
 	 *
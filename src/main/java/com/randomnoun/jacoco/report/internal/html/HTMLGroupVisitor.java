@@ -71,7 +71,16 @@ public class HTMLGroupVisitor extends AbstractGroupVisitor {
 			final ISourceFileLocator locator) throws IOException {
 		final BundlePage bundlepage = new BundlePage(bundles, page, locator,
 				folder.subFolder(bundles[0].getName()), context);
-		bundlepage.render();
+		boolean rendered = false;
+		try {
+			bundlepage.render();
+			rendered = true;
+		} finally {
+			// the report is abandoned, release the worker threads
+			if (!rendered) {
+				context.getPageScheduler().close();
+			}
+		}
 		page.addItem(bundlepage);
 	}
 
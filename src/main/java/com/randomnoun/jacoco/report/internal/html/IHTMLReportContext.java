@@ -41,7 +41,8 @@ public interface IHTMLReportContext {
 	ILanguageNames getLanguageNames();
 
 	/**
-	 * Returns a table for rendering coverage nodes.
+	 * Returns a table for rendering coverage nodes. Tables are stateful, so
+	 * every thread gets its own instance.
 	 *
 	 * @return table for rendering
 	 */
@@ -75,6 +76,44 @@ public interface IHTMLReportContext {
 	 */
 	IIndexUpdate getIndexUpdate();
 
+	/**
+	 * Returns the scheduler used to render independent pages.
+	 *
+	 * @return page scheduler
+	 */
+	PageScheduler getPageScheduler();
+
+	/**
+	 * Returns the tooltips of branch markers shared by all source pages.
+	 *
+	 * @return branch tooltips
+	 */
+	BranchTooltips getBranchTooltips();
+
+	/**
+	 * Returns the number of runs from which source pages show a heat gutter
+	 * instead of branch markers for every run.
+	 *
+	 * @return minimum number of runs for a heat gutter, 0 if disabled
+	 */
+	int getHeatGutterRuns();
+
+	/**
+	 * Returns the number of runs from which source pages leave the coverage of
+	 * the individual runs to a script overlay.
+	 *
+	 * @return minimum number of runs for an overlay, 0 if disabled
+	 */
+	int getCoverageOverlayRuns();
+
+	/**
+	 * Returns the manifest of page fingerprints, if pages which did not change
+	 * since the previous report are not rendered again.
+	 *
+	 * @return page manifest or <code>null</code> if all pages are rendered
+	 */
+	PageManifest getPageManifest();
+
 	/**
 	 * Returns the locale used to format numbers and dates.
 	 *
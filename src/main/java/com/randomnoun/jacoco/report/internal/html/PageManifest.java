@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
+
+/**
+ * Fingerprints of the pages of a report, stored in the report itself. Every
+ * file a page writes is recorded with the fingerprint of the page. When a
+ * report is generated again into the same location, pages whose fingerprint
+ * did not change since the previous report and whose files all still exist
+ * are not rendered again.
+ *
+ * The manifest of the previous report is removed when it has been loaded and
+ * only written again when the report is complete, so pages of an interrupted
+ * report are never considered unchanged.
+ */
+public class PageManifest {
+
+	/** The name of the manifest file in the report root */
+	public static final String MANIFEST = "jacoco-manifest.txt";
+
+	/** Version of the page format, included in every fingerprint */
+	private static final int FORMAT_VERSION = 1;
+
+	private final ReportOutputFolder root;
+
+	private final String settings;
+
+	private final Map<String, String> previous;
+
+	private final ConcurrentMap<String, String> current = new ConcurrentHashMap<String, String>();
+
+	private PageManifest(final ReportOutputFolder root, final String settings,
+			final Map<String, String> previous) {
+		this.root = root;
+		this.settings = settings;
+		this.previous = previous;
+	}
+
+	/**
+	 * Loads the manifest of the previous report in the given folder, if any.
+	 * Previous fingerprints can only be read if the report output supports
+	 * reading files, otherwise all pages are rendered.
+	 *
+	 * @param root
+	 *            root folder of the report
+	 * @param settings
+	 *            fingerprint of all report settings which affect the content
+	 *            of the pages
+	 * @return manifest for the new report
+	 * @throws IOException
+	 *             if the previous manifest can't be read or removed
+	 */
+	public static PageManifest load(final ReportOutputFolder root,
+			final String settings) throws IOException {
+		final Map<String, String> previous = new HashMap<String, String>();
+		final InputStream in = root.openFile(MANIFEST);
+		if (in != null) {
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(in, StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					final int pos = line.indexOf(' ');
+					if (pos != -1) {
+						previous.put(line.substring(pos + 1),
+								line.substring(0, pos));
+					}
+				}
+			}
+			root.createFile(MANIFEST).close();
+		}
+		return new PageManifest(root, settings, previous);
+	}
+
+	/**
+	 * Creates a new fingerprint for a page, which already contains the report
+	 * settings.
+	 *
+	 * @return new fingerprint
+	 */
+	public Fingerprint newFingerprint() {
+		return new Fingerprint().add(FORMAT_VERSION).add(settings);
+	}
+
+	/**
+	 * Records the fingerprint of a page of the new report and checks whether
+	 * all files of the page exist with the same fingerprint in the previous
+	 * report.
+	 *
+	 * @param folder
+	 *            folder of the page
+	 * @param fileNames
+	 *            local names of all files the page writes
+	 * @param fingerprint
+	 *            completed fingerprint of the page
+	 * @return <code>true</code> if the page does not need to be rendered
+	 * @throws IOException
+	 *             if the existing files can't be checked
+	 */
+	public boolean isUnchanged(final ReportOutputFolder folder,
+			final List<String> fileNames, final String fingerprint)
+			throws IOException {
+		boolean unchanged = true;
+		for (final String fileName : fileNames) {
+			final String path = folder.getLink(root, fileName);
+			current.put(path, fingerprint);
+			unchanged = unchanged && fingerprint.equals(previous.get(path))
+					&& exists(folder, fileName);
+		}
+		return unchanged;
+	}
+
+	private static boolean exists(final ReportOutputFolder folder,
+			final String fileName) throws IOException {
+		final InputStream in = folder.openFile(fileName);
+		if (in == null) {
+			return false;
+		}
+		in.close();
+		return true;
+	}
+
+	/**
+	 * Writes the fingerprints of all pages of the new report. Must be called
+	 * after all pages have been rendered.
+	 *
+	 * @throws IOException
+	 *             if the manifest can't be written
+	 */
+	public void write() throws IOException {
+		final Map<String, String> sorted = new TreeMap<String, String>(current);
+		final OutputStream out = root.createFile(MANIFEST);
+		try (Writer writer = new OutputStreamWriter(out,
+				StandardCharsets.UTF_8)) {
+			for (final Map.Entry<String, String> e : sorted.entrySet()) {
+				writer.write(e.getValue());
+				writer.write(' ');
+				writer.write(e.getKey());
+				writer.write('\n');
+			}
+		}
+	}
+
+}
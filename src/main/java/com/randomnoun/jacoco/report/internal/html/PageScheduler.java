@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+
+import com.randomnoun.jacoco.report.internal.html.page.ReportPage;
+
+/**
+ * Renders independent report pages. With a parallelism of one the pages are
+ * rendered on the calling thread, otherwise each page is rendered as a task of
+ * a {@link ForkJoinPool}. Pages only write their own files, so the report does
+ * not depend on the order in which the pages complete.
+ *
+ * Tasks that mostly wait for I/O, like reading source files, are run on a
+ * fixed pool of daemon threads, which limits the number of tasks running at
+ * the same time. Page tasks waiting for them are managed blockers, so the
+ * {@link ForkJoinPool} may start other pages meanwhile.
+ */
+public class PageScheduler implements AutoCloseable {
+
+	private final ForkJoinPool pool;
+
+	private final ExecutorService blockingExecutor;
+
+	/**
+	 * Creates a new scheduler.
+	 *
+	 * @param parallelism
+	 *            number of pages that are rendered at the same time
+	 * @param blockingParallelism
+	 *            number of blocking tasks that are run at the same time
+	 */
+	public PageScheduler(final int parallelism,
+			final int blockingParallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException(
+					"Parallelism must be at least 1: " + parallelism);
+		}
+		if (blockingParallelism < 1) {
+			throw new IllegalArgumentException(
+					"Parallelism must be at least 1: " + blockingParallelism);
+		}
+		pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+		blockingExecutor = blockingParallelism == 1 ? null
+				: Executors.newFixedThreadPool(blockingParallelism,
+						runnable -> {
+							final Thread thread = new Thread(runnable);
+							thread.setDaemon(true);
+							return thread;
+						});
+	}
+
+	/**
+	 * Checks whether pages are rendered in parallel.
+	 *
+	 * @return <code>false</code> if all pages are rendered on the calling
+	 *         thread
+	 */
+	public boolean isParallel() {
+		return pool != null;
+	}
+
+	/**
+	 * Renders all given pages.
+	 *
+	 * @param pages
+	 *            pages to render, a page must not depend on the output of the
+	 *            other pages
+	 * @throws IOException
+	 *             if any of the pages can't be written
+	 */
+	public void render(final List<? extends ReportPage> pages)
+			throws IOException {
+		if (pool == null) {
+			for (final ReportPage page : pages) {
+				page.render();
+			}
+			return;
+		}
+		final List<PageTask> tasks = new ArrayList<PageTask>(pages.size());
+		for (final ReportPage page : pages) {
+			tasks.add(new PageTask(page));
+		}
+		try {
+			pool.invoke(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					ForkJoinTask.invokeAll(tasks);
+				}
+			});
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Runs tasks which mostly block on I/O and waits for all of them to
+	 * complete.
+	 *
+	 * @param tasks
+	 *            tasks to run, a task must not depend on the other tasks
+	 * @return results of the tasks, in the order of the tasks
+	 * @throws IOException
+	 *             if any of the tasks fails
+	 */
+	public <T> List<T> invokeBlocking(
+			final List<? extends Callable<? extends T>> tasks)
+			throws IOException {
+		final List<T> results = new ArrayList<T>(tasks.size());
+		if (blockingExecutor == null) {
+			for (final Callable<? extends T> task : tasks) {
+				try {
+					results.add(task.call());
+				} catch (final Exception e) {
+					throw rethrow(e);
+				}
+			}
+			return results;
+		}
+
+		final List<Future<? extends T>> futures = new ArrayList<Future<? extends T>>(
+				tasks.size());
+		for (final Callable<? extends T> task : tasks) {
+			futures.add(blockingExecutor.submit(task));
+		}
+		Throwable failure = null;
+		// wait for every submitted task, so no task writes after we return
+		for (final Future<? extends T> future : futures) {
+			try {
+				results.add(await(future));
+			} catch (final ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause();
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				if (failure == null) {
+					failure = new InterruptedIOException();
+				}
+			}
+		}
+		if (failure != null) {
+			throw rethrow(failure);
+		}
+		return results;
+	}
+
+	/**
+	 * Waits for the given task. Within a page task of the pool the wait is a
+	 * managed block, so the pool can compensate for the blocked worker.
+	 */
+	private static <T> T await(final Future<T> future)
+			throws InterruptedException, ExecutionException {
+		ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+			public boolean block() throws InterruptedException {
+				try {
+					future.get();
+				} catch (final ExecutionException e) {
+					// reported by the caller
+				} catch (final CancellationException e) {
+					// reported by the caller
+				}
+				return true;
+			}
+
+			public boolean isReleasable() {
+				return future.isDone();
+			}
+		});
+		return future.get();
+	}
+
+	private static IOException rethrow(final Throwable t) {
+		if (t instanceof IOException) {
+			return (IOException) t;
+		}
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		}
+		if (t instanceof Error) {
+			throw (Error) t;
+		}
+		throw new IllegalStateException(t);
+	}
+
+	/**
+	 * Releases the worker threads of this scheduler. Must be called when the
+	 * report is complete or rendering failed.
+	 */
+	public void close() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+		if (blockingExecutor != null) {
+			blockingExecutor.shutdown();
+		}
+	}
+
+	private static class PageTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient ReportPage page;
+
+		PageTask(final ReportPage page) {
+			this.page = page;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				page.render();
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+	}
+
+}
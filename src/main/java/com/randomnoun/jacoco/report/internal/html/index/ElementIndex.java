@@ -12,21 +12,25 @@
  *******************************************************************************/
 package com.randomnoun.jacoco.report.internal.html.index;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
-import com.randomnoun.jacoco.report.internal.html.ILinkable;
 
 /**
  * An index over all report pages that allows queries according to certain
  * criteria.
+ *
+ * Class pages are stored in open addressing hash tables keyed by the
+ * primitive class id. Every entry only keeps the folder and local file name
+ * of the page, the relative link is created when it is queried. The index is
+ * split into segments with separate locks, so pages rendered in parallel can
+ * be added concurrently.
  */
 public class ElementIndex implements IIndexUpdate {
 
+	private static final int SEGMENT_BITS = 4;
+
 	private final ReportOutputFolder baseFolder;
 
-	private final Map<Long, String> allClasses = new HashMap<Long, String>();
+	private final Segment[] segments;
 
 	/**
 	 * Creates a new empty index for a HTML report.
@@ -36,6 +40,10 @@ public class ElementIndex implements IIndexUpdate {
 	 */
 	public ElementIndex(final ReportOutputFolder baseFolder) {
 		this.baseFolder = baseFolder;
+		this.segments = new Segment[1 << SEGMENT_BITS];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = new Segment();
+		}
 	}
 
 	/**
@@ -47,13 +55,98 @@ public class ElementIndex implements IIndexUpdate {
 	 * @return Link or null
 	 */
 	public String getLinkToClass(final long classid) {
-		return allClasses.get(Long.valueOf(classid));
+		final int hash = hash(classid);
+		return segment(hash).getLink(classid, hash, baseFolder);
 	}
 
 	// === IIndexUpdater ===
 
-	public void addClass(final ILinkable link, final long classid) {
-		allClasses.put(Long.valueOf(classid), link.getLink(baseFolder));
+	public void addClass(final ReportOutputFolder folder, final String name,
+			final long classid) {
+		final int hash = hash(classid);
+		segment(hash).put(classid, hash, folder, name);
+	}
+
+	private Segment segment(final int hash) {
+		return segments[hash >>> (Integer.SIZE - SEGMENT_BITS)];
+	}
+
+	private static int hash(final long classid) {
+		final long h = classid * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Open addressing hash table with linear probing. A slot is in use if it
+	 * has a file name, as every long value is a valid class id.
+	 */
+	private static final class Segment {
+
+		private long[] ids = new long[16];
+
+		private ReportOutputFolder[] folders = new ReportOutputFolder[16];
+
+		private String[] names = new String[16];
+
+		private int size;
+
+		synchronized void put(final long classid, final int hash,
+				final ReportOutputFolder folder, final String name) {
+			// keep the load factor below 3/4
+			if ((size + 1) * 4 > ids.length * 3) {
+				grow();
+			}
+			if (insert(classid, hash, folder, name)) {
+				size++;
+			}
+		}
+
+		synchronized String getLink(final long classid, final int hash,
+				final ReportOutputFolder base) {
+			final int mask = ids.length - 1;
+			for (int slot = hash & mask; names[slot] != null; slot = (slot + 1)
+					& mask) {
+				if (ids[slot] == classid) {
+					return folders[slot].getLink(base, names[slot]);
+				}
+			}
+			return null;
+		}
+
+		private boolean insert(final long classid, final int hash,
+				final ReportOutputFolder folder, final String name) {
+			final int mask = ids.length - 1;
+			int slot = hash & mask;
+			while (names[slot] != null) {
+				if (ids[slot] == classid) {
+					folders[slot] = folder;
+					names[slot] = name;
+					return false;
+				}
+				slot = (slot + 1) & mask;
+			}
+			ids[slot] = classid;
+			folders[slot] = folder;
+			names[slot] = name;
+			return true;
+		}
+
+		private void grow() {
+			final long[] oldIds = ids;
+			final ReportOutputFolder[] oldFolders = folders;
+			final String[] oldNames = names;
+			final int capacity = oldIds.length * 2;
+			ids = new long[capacity];
+			folders = new ReportOutputFolder[capacity];
+			names = new String[capacity];
+			for (int i = 0; i < oldIds.length; i++) {
+				if (oldNames[i] != null) {
+					insert(oldIds[i], hash(oldIds[i]), oldFolders[i],
+							oldNames[i]);
+				}
+			}
+		}
+
 	}
 
 }
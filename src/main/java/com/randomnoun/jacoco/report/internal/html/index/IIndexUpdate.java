@@ -12,7 +12,7 @@
  *******************************************************************************/
 package com.randomnoun.jacoco.report.internal.html.index;
 
-import com.randomnoun.jacoco.report.internal.html.ILinkable;
+import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
 
 /**
  * Every report page that should become part of the index must be added via this
@@ -21,13 +21,15 @@ import com.randomnoun.jacoco.report.internal.html.ILinkable;
 public interface IIndexUpdate {
 
 	/**
-	 * Adds a class to the index.
+	 * Adds a class to the index. May be called by multiple threads.
 	 *
-	 * @param link
-	 *            link to the class
+	 * @param folder
+	 *            folder of the class page
+	 * @param name
+	 *            local file name of the class page
 	 * @param classid
 	 *            identifier of the class
 	 */
-	void addClass(ILinkable link, long classid);
+	void addClass(ReportOutputFolder folder, String name, long classid);
 
 }
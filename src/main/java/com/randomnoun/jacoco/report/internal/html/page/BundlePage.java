@@ -13,6 +13,8 @@
 package com.randomnoun.jacoco.report.internal.html.page;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.ICoverageNode;
@@ -20,8 +22,10 @@ import org.jacoco.core.analysis.IPackageCoverage;
 import org.jacoco.report.ISourceFileLocator;
 
 import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
+import com.randomnoun.jacoco.report.internal.html.Fingerprint;
 import com.randomnoun.jacoco.report.internal.html.HTMLElement;
 import com.randomnoun.jacoco.report.internal.html.IHTMLReportContext;
+import com.randomnoun.jacoco.report.internal.html.PageScheduler;
 
 /**
  * Page showing coverage information for a bundle. The page contains a table
@@ -33,6 +37,9 @@ public class BundlePage extends TablePage<ICoverageNode> {
 
 	private IBundleCoverage[] bundles;
 
+	/** Packages of all bundles, joined by name */
+	private List<IPackageCoverage[]> packages;
+
 	/**
 	 * Creates a new visitor in the given context.
 	 *
@@ -53,6 +60,8 @@ public class BundlePage extends TablePage<ICoverageNode> {
 		super(getPlainCopies(bundles), parent, folder, context);
 		this.bundles = bundles;
 		this.locator = locator;
+		this.packages = NodeJoin.join(bundles, IBundleCoverage::getPackages,
+				NodeJoin.BY_NAME, IPackageCoverage[]::new);
 	}
 
 	private static ICoverageNode[] getPlainCopies(IBundleCoverage[] bundles2) {
@@ -69,31 +78,44 @@ public class BundlePage extends TablePage<ICoverageNode> {
 		super.render();
 		// Don't keep the bundle structure in memory
 		bundles = null;
+		packages = null;
 	}
 
 	private void renderPackages() throws IOException {
-		for (final IPackageCoverage p : bundles[0].getPackages()) {
-			if (!p.containsCode()) {
+		final PageScheduler scheduler = context.getPageScheduler();
+		// create the package pages and their folders in package order, so
+		// folder names are deterministic; render each page right away, or
+		// collect the pages for the scheduler when rendering in parallel
+		final List<PackagePage> pages = new ArrayList<PackagePage>();
+		for (final IPackageCoverage[] allPackages : packages) {
+			if (!NodeJoin.containsCode(allPackages)) {
 				continue;
 			}
-			final String packagename = p.getName();
-			// @TODO get all packages with the same name across all bundles
-			IPackageCoverage[] allPackages = new IPackageCoverage[bundles.length];
-			allPackages[0] = p;
-			for (int i=1; i<bundles.length; i++) {
-				allPackages[i] = bundles[i].getPackages().stream()
-					.filter(tmpP -> tmpP.getName().equals(packagename))
-					.findFirst().orElse(null);
-			}
+			final String packagename = NodeJoin.first(allPackages).getName();
 			final String foldername = packagename.length() == 0 ? "default"
 					: packagename.replace('/', '.');
-			final PackagePage page = new PackagePage(allPackages, this, locator,
-					folder.subFolder(foldername), context);
-			page.render();
+			final PackagePage page = new PackagePage(allPackages, this,
+					locator, folder.subFolder(foldername), context);
+			if (scheduler.isParallel()) {
+				pages.add(page);
+			} else {
+				page.render();
+				addItem(page);
+			}
+		}
+		scheduler.render(pages);
+		for (final PackagePage page : pages) {
 			addItem(page);
 		}
 	}
 
+	@Override
+	protected void fingerprint(final Fingerprint fingerprint)
+			throws IOException {
+		super.fingerprint(fingerprint);
+		fingerprint.add(containsPackages());
+	}
+
 	@Override
 	protected String getOnload() {
 		return "initialSort(['breadcrumb', 'coveragetable'])";
@@ -110,9 +132,9 @@ public class BundlePage extends TablePage<ICoverageNode> {
 
 	@Override
 	protected void content(HTMLElement body) throws IOException {
-		if (bundles[0].getPackages().isEmpty()) {
+		if (!containsPackages()) {
 			body.p().text("No class files specified.");
-		} else if (!bundles[0].containsCode()) {
+		} else if (!NodeJoin.containsCode(bundles)) {
 			body.p().text(
 					"None of the analyzed classes contain code relevant for code coverage.");
 		} else {
@@ -120,4 +142,8 @@ public class BundlePage extends TablePage<ICoverageNode> {
 		}
 	}
 
+	private boolean containsPackages() {
+		return !packages.isEmpty();
+	}
+
 }
@@ -19,6 +19,7 @@ import org.jacoco.core.analysis.IMethodCoverage;
 import org.jacoco.core.analysis.IPackageCoverage;
 
 import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
+import com.randomnoun.jacoco.report.internal.html.Fingerprint;
 import com.randomnoun.jacoco.report.internal.html.HTMLElement;
 import com.randomnoun.jacoco.report.internal.html.IHTMLReportContext;
 import com.randomnoun.jacoco.report.internal.html.ILinkable;
@@ -50,7 +51,13 @@ public class ClassPage extends TablePage<IClassCoverage> {
 			final IHTMLReportContext context) {
 		super(classNodes, parent, folder, context);
 		this.sourcePage = sourcePage;
-		context.getIndexUpdate().addClass(this, classNodes[0].getId());
+		final String fileName = getFileName();
+		for (final IClassCoverage classNode : classNodes) {
+			if (classNode != null) {
+				context.getIndexUpdate().addClass(folder, fileName,
+						classNode.getId());
+			}
+		}
 	}
 
 	@Override
@@ -60,24 +67,28 @@ public class ClassPage extends TablePage<IClassCoverage> {
 
 	@Override
 	public void render() throws IOException {
-		for (final IMethodCoverage m : getNodes()[0].getMethods()) {
+		// match on name + descriptor
+		for (final IMethodCoverage[] allMethods : NodeJoin.join(getNodes(),
+				IClassCoverage::getMethods, NodeJoin.BY_NAME_AND_DESC,
+				IMethodCoverage[]::new)) {
+			final IMethodCoverage m = NodeJoin.first(allMethods);
 			final String label = context.getLanguageNames().getMethodName(
-					getNodes()[0].getName(), m.getName(), m.getDesc(),
+					getNode().getName(), m.getName(), m.getDesc(),
 					m.getSignature());
-			// match on name + signature
-			String match = m.getName() + m.getSignature();
-			IMethodCoverage[] allMethods = new IMethodCoverage[getNodes().length];
-			allMethods[0] = m;
-			for (int i=1; i<getNodes().length; i++) {
-				allMethods[i] = getNodes()[i].getMethods().stream()
-					.filter(tmpP -> (tmpP.getName() + tmpP.getSignature()).equals(match))
-					.findFirst().orElse(null);
-			}
 			addItem(new MethodItem(allMethods, label, sourcePage));
 		}
 		super.render();
 	}
 
+	@Override
+	protected void fingerprint(final Fingerprint fingerprint)
+			throws IOException {
+		super.fingerprint(fingerprint);
+		fingerprint.add(getNode().isNoMatch())
+				.add(getNode().getPackageName())
+				.add(getNode().getSourceFileName()).add(sourcePage != null);
+	}
+
 	@Override
 	protected String getFileName() {
 		final String vmname = getNode().getName();
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html.page;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.ISourceNode;
+
+import com.randomnoun.jacoco.report.internal.html.BranchTooltips;
+
+/**
+ * Writes the line coverage of every run of a source file as a script, which
+ * is loaded by a source page on demand to show the coverage of a single run.
+ * The coverage of each run is run-length encoded as a flat array of
+ * <code>count, status, missed branches, total branches</code> tuples starting
+ * at line 1, where <code>status</code> is the {@link ICounter} status of the
+ * lines. Runs without the source file are <code>null</code>.
+ *
+ * The branch tooltips are formatted in Java for the locale of the report and
+ * passed as a second argument, an object with the tooltip text for every
+ * <code>missed/total</code> branch count of the file.
+ */
+final class CoverageOverlay {
+
+	private CoverageOverlay() {
+	}
+
+	/**
+	 * Writes the overlay script for the given source file.
+	 *
+	 * @param nodes
+	 *            source file per run, entries might be <code>null</code>
+	 * @param tooltips
+	 *            tooltips of the branch markers
+	 * @param output
+	 *            output for the script, will be closed
+	 * @throws IOException
+	 *             in case of problems with the output
+	 */
+	static void write(final ISourceNode[] nodes, final BranchTooltips tooltips,
+			final OutputStream output) throws IOException {
+		final Writer writer = new BufferedWriter(
+				new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		try {
+			// branch counts by missed << 32 | total, in a stable order
+			final Set<Long> branchCounts = new TreeSet<Long>();
+			writer.write("jacocoOverlay.load([");
+			for (int i = 0; i < nodes.length; i++) {
+				if (i > 0) {
+					writer.write(',');
+				}
+				if (nodes[i] == null) {
+					writer.write("null");
+				} else {
+					writeRun(nodes[i], writer, branchCounts);
+				}
+			}
+			writer.write("],{");
+			boolean first = true;
+			for (final Long branchCount : branchCounts) {
+				if (!first) {
+					writer.write(',');
+				}
+				first = false;
+				final long key = branchCount.longValue();
+				writer.write('"');
+				writer.write(Long.toString(key >>> 32));
+				writer.write('/');
+				writer.write(Long.toString(key & 0xFFFFFFFFL));
+				writer.write("\":");
+				writeString(writer, tooltips.getText((int) (key >>> 32),
+						(int) key));
+			}
+			writer.write("});\n");
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static void writeRun(final ISourceNode node, final Writer writer,
+			final Set<Long> branchCounts) throws IOException {
+		writer.write('[');
+		final int last = node.getLastLine();
+		int count = 0;
+		int status = 0, missed = 0, total = 0;
+		boolean first = true;
+		for (int nr = 1; nr <= last; nr++) {
+			final ILine line = node.getLine(nr);
+			final ICounter branches = line.getBranchCounter();
+			final int s = line.getStatus();
+			final int m = branches.getMissedCount();
+			final int t = branches.getTotalCount();
+			if (count > 0 && s == status && m == missed && t == total) {
+				count++;
+				continue;
+			}
+			if (count > 0) {
+				writeTuple(writer, first, count, status, missed, total);
+				first = false;
+			}
+			count = 1;
+			status = s;
+			missed = m;
+			total = t;
+			if (t > 0) {
+				branchCounts.add(Long.valueOf(((long) m << 32) | t));
+			}
+		}
+		if (count > 0) {
+			writeTuple(writer, first, count, status, missed, total);
+		}
+		writer.write(']');
+	}
+
+	private static void writeTuple(final Writer writer, final boolean first,
+			final int count, final int status, final int missed,
+			final int total) throws IOException {
+		if (!first) {
+			writer.write(',');
+		}
+		writer.write(Integer.toString(count));
+		writer.write(',');
+		writer.write(Integer.toString(status));
+		writer.write(',');
+		writer.write(Integer.toString(missed));
+		writer.write(',');
+		writer.write(Integer.toString(total));
+	}
+
+	/**
+	 * Writes a JavaScript string literal. Non-ASCII characters, like the
+	 * grouping separators of some locales, are escaped so the script does not
+	 * depend on the encoding it is loaded with.
+	 */
+	private static void writeString(final Writer writer, final String s)
+			throws IOException {
+		writer.write('"');
+		for (int i = 0; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			if (c == '"' || c == '\\') {
+				writer.write('\\');
+				writer.write(c);
+			} else if (c < 0x20 || c > 0x7E || c == '<') {
+				writer.write(String.format("\\u%04x", Integer.valueOf(c)));
+			} else {
+				writer.write(c);
+			}
+		}
+		writer.write('"');
+	}
+
+}
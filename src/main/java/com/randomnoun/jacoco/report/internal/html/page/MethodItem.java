@@ -52,7 +52,7 @@ final class MethodItem implements ITableItem {
 			return null;
 		}
 		final String link = sourcePage.getLink(base);
-		final int first = nodes[0].getFirstLine();
+		final int first = NodeJoin.first(nodes).getFirstLine();
 		return first != ISourceNode.UNKNOWN_LINE ? link + "#L" + first : link;
 	}
 
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html.page;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.IMethodCoverage;
+
+/**
+ * Joins the children of a node across all bundles of a report. The children
+ * of every bundle are sorted and then merged in a single pass, which results
+ * in one row per distinct child. A row holds the child of every bundle at the
+ * bundle's index, or <code>null</code> if the bundle does not contain that
+ * child. Children which only exist in some of the bundles are included.
+ *
+ * The rows are ordered by the identity of the children, not in the order of
+ * the children in the first bundle. Tables sort the rows with a stable sort,
+ * so rows with equal counters are listed by name.
+ */
+final class NodeJoin {
+
+	/** Identifies nodes by their name */
+	static final Comparator<ICoverageNode> BY_NAME = Comparator
+			.comparing(ICoverageNode::getName);
+
+	/** Identifies methods by their name and descriptor */
+	static final Comparator<IMethodCoverage> BY_NAME_AND_DESC = Comparator
+			.comparing(IMethodCoverage::getName)
+			.thenComparing(IMethodCoverage::getDesc);
+
+	private NodeJoin() {
+	}
+
+	/**
+	 * Joins the children of the given parent nodes.
+	 *
+	 * @param parents
+	 *            parent node per bundle, entries might be <code>null</code>
+	 *            if the node does not exist in a bundle
+	 * @param childrenOf
+	 *            accessor for the children of a parent node
+	 * @param identity
+	 *            order of the children, children which compare as equal are
+	 *            joined into the same row
+	 * @param newRow
+	 *            creates a row array with the given length
+	 * @return rows of joined children, ordered by <code>identity</code>
+	 */
+	static <P, T extends ICoverageNode> List<T[]> join(final P[] parents,
+			final Function<? super P, ? extends Collection<? extends T>> childrenOf,
+			final Comparator<? super T> identity,
+			final IntFunction<T[]> newRow) {
+		final int bundleCount = parents.length;
+		final List<List<T>> sorted = new ArrayList<List<T>>(bundleCount);
+		int maxSize = 0;
+		for (final P parent : parents) {
+			final List<T> children;
+			if (parent == null) {
+				children = Collections.emptyList();
+			} else {
+				children = new ArrayList<T>(childrenOf.apply(parent));
+				Collections.sort(children, identity);
+			}
+			sorted.add(children);
+			maxSize = Math.max(maxSize, children.size());
+		}
+
+		// head of every bundle, null once the bundle is exhausted
+		final T[] heads = newRow.apply(bundleCount);
+		final int[] cursors = new int[bundleCount];
+		for (int i = 0; i < bundleCount; i++) {
+			heads[i] = next(sorted.get(i), cursors, i);
+		}
+		final List<T[]> rows = new ArrayList<T[]>(maxSize);
+		while (true) {
+			// single pass: the row collects the heads equal to the minimum
+			T[] row = null;
+			T min = null;
+			for (int i = 0; i < bundleCount; i++) {
+				final T head = heads[i];
+				if (head == null) {
+					continue;
+				}
+				final int cmp = min == null ? -1 : identity.compare(head, min);
+				if (cmp < 0) {
+					if (row == null) {
+						row = newRow.apply(bundleCount);
+					} else {
+						Arrays.fill(row, 0, i, null);
+					}
+					min = head;
+				}
+				if (cmp <= 0) {
+					row[i] = head;
+				}
+			}
+			if (row == null) {
+				return rows;
+			}
+			for (int i = 0; i < bundleCount; i++) {
+				if (row[i] != null) {
+					heads[i] = next(sorted.get(i), cursors, i);
+				}
+			}
+			rows.add(row);
+		}
+	}
+
+	private static <T> T next(final List<T> children, final int[] cursors,
+			final int bundle) {
+		final int pos = cursors[bundle];
+		if (pos == children.size()) {
+			return null;
+		}
+		cursors[bundle] = pos + 1;
+		return children.get(pos);
+	}
+
+	/**
+	 * Returns the first node of a row that exists.
+	 *
+	 * @param row
+	 *            joined nodes
+	 * @return first non-<code>null</code> node
+	 */
+	static <T extends ICoverageNode> T first(final T[] row) {
+		for (final T node : row) {
+			if (node != null) {
+				return node;
+			}
+		}
+		throw new IllegalArgumentException("Empty row.");
+	}
+
+	/**
+	 * Checks whether any node of a row contains code.
+	 *
+	 * @param row
+	 *            joined nodes
+	 * @return <code>true</code> if at least one node contains code
+	 */
+	static boolean containsCode(final ICoverageNode[] row) {
+		for (final ICoverageNode node : row) {
+			if (node != null && node.containsCode()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
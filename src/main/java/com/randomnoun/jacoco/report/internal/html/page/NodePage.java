@@ -12,10 +12,17 @@
  *******************************************************************************/
 package com.randomnoun.jacoco.report.internal.html.page;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.ICoverageNode;
 
 import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
+import com.randomnoun.jacoco.report.internal.html.Fingerprint;
 import com.randomnoun.jacoco.report.internal.html.IHTMLReportContext;
+import com.randomnoun.jacoco.report.internal.html.PageManifest;
 import com.randomnoun.jacoco.report.internal.html.resources.Resources;
 import com.randomnoun.jacoco.report.internal.html.resources.Styles;
 import com.randomnoun.jacoco.report.internal.html.table.ITableItem;
@@ -29,14 +36,17 @@ import com.randomnoun.jacoco.report.internal.html.table.ITableItem;
 public abstract class NodePage<NodeType extends ICoverageNode>
 		extends ReportPage implements ITableItem {
 
-	// private final NodeType node;
 	private final NodeType[] nodes;
 
+	/** First existing node, looked up on first use */
+	private NodeType node;
+
 	/**
 	 * Creates a new node page.
 	 *
-	 * @param node
-	 *            corresponding node
+	 * @param nodes
+	 *            corresponding node per bundle, entries are <code>null</code>
+	 *            for bundles that do not contain the node
 	 * @param parent
 	 *            optional hierarchical parent
 	 * @param folder
@@ -48,6 +58,51 @@ public abstract class NodePage<NodeType extends ICoverageNode>
 			final ReportOutputFolder folder, final IHTMLReportContext context) {
 		super(parent, folder, context);
 		this.nodes = nodes;
+		// pages are created sequentially, render() may run concurrently
+		folder.reserve(getFileName());
+	}
+
+	/**
+	 * Renders this page, unless the report keeps a page manifest and the page
+	 * is unchanged since the previous report.
+	 */
+	@Override
+	public void render() throws IOException {
+		final PageManifest manifest = context.getPageManifest();
+		if (manifest != null) {
+			final Fingerprint fingerprint = manifest.newFingerprint();
+			fingerprint(fingerprint);
+			if (manifest.isUnchanged(folder, getFileNames(),
+					fingerprint.toHex())) {
+				return;
+			}
+		}
+		super.render();
+	}
+
+	/**
+	 * Returns the local names of all files this page writes, which are
+	 * recorded in the page manifest. The default is the page itself.
+	 *
+	 * @return local file names
+	 */
+	protected List<String> getFileNames() {
+		return Collections.singletonList(getFileName());
+	}
+
+	@Override
+	protected void fingerprint(final Fingerprint fingerprint)
+			throws IOException {
+		super.fingerprint(fingerprint);
+		final BundlePage bundlePage = getParentBundlePage();
+		if (bundlePage != null) {
+			final IBundleCoverage[] bundles = bundlePage.getBundles();
+			fingerprint.add(bundles.length);
+			for (final IBundleCoverage bundle : bundles) {
+				fingerprint.add(bundle.getName());
+			}
+		}
+		fingerprint.add(nodes);
 	}
 
 	// === ILinkable ===
@@ -56,21 +111,31 @@ public abstract class NodePage<NodeType extends ICoverageNode>
 		if (isRootPage()) {
 			return Styles.EL_REPORT;
 		} else {
-			return Resources.getElementStyle(nodes[0].getElementType());
+			return Resources.getElementStyle(getNode().getElementType());
 		}
 	}
 
 	public String getLinkLabel() {
-		return nodes[0].getName();
+		return getNode().getName();
 	}
 
 	// === ICoverageTableItem ===
 
-	
+	/**
+	 * Returns the node of the first bundle that contains this node.
+	 *
+	 * @return first existing node
+	 */
 	public NodeType getNode() {
-		return nodes[0];
+		// racy but idempotent, every thread finds the same node
+		NodeType n = node;
+		if (n == null) {
+			n = NodeJoin.first(nodes);
+			node = n;
+		}
+		return n;
 	}
-	
+
 
 	public NodeType[] getNodes() {
 		return nodes;
@@ -20,6 +20,7 @@ import org.jacoco.core.analysis.ISourceFileCoverage;
 import org.jacoco.report.ISourceFileLocator;
 
 import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
+import com.randomnoun.jacoco.report.internal.html.Fingerprint;
 import com.randomnoun.jacoco.report.internal.html.HTMLElement;
 import com.randomnoun.jacoco.report.internal.html.IHTMLReportContext;
 import com.randomnoun.jacoco.report.internal.html.ILinkable;
@@ -54,9 +55,16 @@ public class PackagePage extends TablePage<IPackageCoverage> {
 		super(nodes, parent, folder, context);
 		packageSourcePage = new PackageSourcePage(nodes, parent, locator, folder,
 				context, this);
-		
-		// @TODO or them all together
-		sourceCoverageExists = !nodes[0].getSourceFiles().isEmpty();
+		sourceCoverageExists = containsSourceFiles(nodes);
+	}
+
+	private static boolean containsSourceFiles(final IPackageCoverage[] nodes) {
+		for (final IPackageCoverage node : nodes) {
+			if (node != null && !node.getSourceFiles().isEmpty()) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	@Override
@@ -69,20 +77,13 @@ public class PackagePage extends TablePage<IPackageCoverage> {
 	}
 
 	private void renderClasses() throws IOException {
-		for (final IClassCoverage c : getNode().getClasses()) {
-			if (!c.containsCode()) {
+		for (final IClassCoverage[] allClassCoverages : NodeJoin.join(
+				getNodes(), IPackageCoverage::getClasses, NodeJoin.BY_NAME,
+				IClassCoverage[]::new)) {
+			if (!NodeJoin.containsCode(allClassCoverages)) {
 				continue;
 			}
-			String className = c.getName();
-			IClassCoverage[] allClassCoverages = new IClassCoverage[getNodes().length];
-			allClassCoverages[0] = c;
-			for (int i=1; i<getNodes().length; i++) {
-				allClassCoverages[i] = getNodes()[i].getClasses().stream()
-					.filter(tmpCC -> tmpCC.getName().equals(className))
-					.findFirst().orElse(null);
-			}
-
-			
+			final IClassCoverage c = NodeJoin.first(allClassCoverages);
 			final ILinkable sourceFilePage = packageSourcePage
 					.getSourceFilePage(c.getSourceFileName());
 			final ClassPage page = new ClassPage(allClassCoverages, this, sourceFilePage,
@@ -92,6 +93,13 @@ public class PackagePage extends TablePage<IPackageCoverage> {
 		}
 	}
 
+	@Override
+	protected void fingerprint(final Fingerprint fingerprint)
+			throws IOException {
+		super.fingerprint(fingerprint);
+		fingerprint.add(sourceCoverageExists);
+	}
+
 	@Override
 	protected String getOnload() {
 		return "initialSort(['breadcrumb', 'coveragetable'])";
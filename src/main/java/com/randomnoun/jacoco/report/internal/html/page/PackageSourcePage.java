@@ -14,8 +14,11 @@ package com.randomnoun.jacoco.report.internal.html.page;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.jacoco.core.analysis.IPackageCoverage;
 import org.jacoco.core.analysis.ISourceFileCoverage;
@@ -26,6 +29,7 @@ import com.randomnoun.jacoco.report.internal.html.HTMLElement;
 import com.randomnoun.jacoco.report.internal.html.IHTMLReportContext;
 import com.randomnoun.jacoco.report.internal.html.ILinkable;
 import com.randomnoun.jacoco.report.internal.html.resources.Styles;
+import com.randomnoun.jacoco.report.internal.html.table.ITableItem;
 
 /**
  * Page showing coverage information for a Java package. The page contains a
@@ -83,29 +87,41 @@ public class PackageSourcePage extends TablePage<IPackageCoverage> {
 
 	private final void renderSourceFilePages() throws IOException {
 		final String packagename = getNode().getName();
-		for (final ISourceFileCoverage s : getNode().getSourceFiles()) {
-			if (!s.containsCode()) {
+		final List<String> sourcenames = new ArrayList<String>();
+		final List<Callable<ITableItem>> tasks = new ArrayList<Callable<ITableItem>>();
+		for (final ISourceFileCoverage[] allSourceFileCoverages : NodeJoin.join(
+				nodes, IPackageCoverage::getSourceFiles, NodeJoin.BY_NAME,
+				ISourceFileCoverage[]::new)) {
+			if (!NodeJoin.containsCode(allSourceFileCoverages)) {
 				continue;
 			}
-			final String sourcename = s.getName();
-			ISourceFileCoverage[] allSourceFileCoverages = new ISourceFileCoverage[nodes.length];
-			allSourceFileCoverages[0] = s;
-			for (int i=1; i<nodes.length; i++) {
-				allSourceFileCoverages[i] = nodes[i].getSourceFiles().stream()
-					.filter(tmpSFC -> tmpSFC.getName().equals(sourcename))
-					.findFirst().orElse(null);
+			final String sourcename = NodeJoin.first(allSourceFileCoverages).getName();
+			// source pages might be rendered concurrently, so reserve the
+			// normalized file names in a stable order
+			folder.reserve(SourceFilePage.getFileName(sourcename));
+			if (SourceFilePage.isOverlay(context, nodes.length)) {
+				folder.reserve(SourceFilePage.getOverlayFileName(sourcename));
 			}
-			
-			final Reader reader = locator.getSourceFile(packagename, sourcename);
-			if (reader == null) {
-				addItem(new SourceFileItem(allSourceFileCoverages)); // s
-			} else {
+			sourcenames.add(sourcename);
+			tasks.add(() -> {
+				final Reader reader = locator.getSourceFile(packagename, sourcename);
+				if (reader == null) {
+					return new SourceFileItem(allSourceFileCoverages);
+				}
 				final SourceFilePage sourcePage = new SourceFilePage(allSourceFileCoverages, reader, locator.getTabWidth(), this, folder, context);
 				sourcePage.render();
-				sourceFilePages.put(sourcename, sourcePage);
-				addItem(sourcePage);
-			}
+				return sourcePage;
+			});
+		}
 
+		final List<ITableItem> items = context.getPageScheduler()
+				.invokeBlocking(tasks);
+		for (int i = 0; i < items.size(); i++) {
+			final ITableItem item = items.get(i);
+			if (item instanceof SourceFilePage) {
+				sourceFilePages.put(sourcenames.get(i), item);
+			}
+			addItem(item);
 		}
 	}
 
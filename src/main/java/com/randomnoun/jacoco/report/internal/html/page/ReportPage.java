@@ -18,6 +18,7 @@ import org.jacoco.core.JaCoCo;
 import org.jacoco.core.analysis.IBundleCoverage;
 
 import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
+import com.randomnoun.jacoco.report.internal.html.Fingerprint;
 import com.randomnoun.jacoco.report.internal.html.HTMLElement;
 import com.randomnoun.jacoco.report.internal.html.IHTMLReportContext;
 import com.randomnoun.jacoco.report.internal.html.ILinkable;
@@ -90,6 +91,24 @@ public abstract class ReportPage implements ILinkable {
 		html.close();
 	}
 
+	/**
+	 * Adds all inputs of this page which are not report settings to the given
+	 * fingerprint. Subclasses add the inputs of their content.
+	 *
+	 * @param fingerprint
+	 *            fingerprint to add the inputs to
+	 * @throws IOException
+	 *             if inputs of the page can't be read
+	 */
+	protected void fingerprint(final Fingerprint fingerprint)
+			throws IOException {
+		fingerprint.add(getLinkLabel()).add(getLinkStyle()).add(getOnload());
+		for (ReportPage page = parent; page != null; page = page.parent) {
+			fingerprint.add(page.getLinkLabel()).add(page.getLinkStyle())
+					.add(page.getLink(folder));
+		}
+	}
+
 	/**
 	 * Creates the elements within the head element.
 	 *
@@ -164,7 +183,8 @@ public abstract class ReportPage implements ILinkable {
 	}
 
 	/**
-	 * Specifies the local file name of this page.
+	 * Specifies the local file name of this page. Node pages reserve the name
+	 * in their constructor, so it may only depend on the node of the page.
 	 *
 	 * @return local file name
 	 */
@@ -75,6 +75,7 @@ public class SessionsPage extends ReportPage {
 			final ElementIndex index, final ReportPage parent,
 			final ReportOutputFolder folder, final IHTMLReportContext context) {
 		super(parent, folder, context);
+		folder.reserve(getFileName());
 		this.sessionInfos = sessionInfos;
 		this.executionData = new ArrayList<ExecutionData>(executionData);
 		this.index = index;
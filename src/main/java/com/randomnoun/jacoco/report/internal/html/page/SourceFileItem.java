@@ -32,7 +32,7 @@ final class SourceFileItem implements ITableItem {
 	}
 
 	public String getLinkLabel() {
-		return nodes[0].getName();
+		return NodeJoin.first(nodes).getName();
 	}
 
 	public String getLinkStyle() {
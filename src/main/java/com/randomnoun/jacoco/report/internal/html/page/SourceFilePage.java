@@ -15,15 +15,23 @@ package com.randomnoun.jacoco.report.internal.html.page;
 import static java.lang.String.format;
 
 import java.io.IOException;
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
 import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.ILine;
 import org.jacoco.core.analysis.ISourceNode;
 
 import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
+import com.randomnoun.jacoco.report.internal.html.Fingerprint;
 import com.randomnoun.jacoco.report.internal.html.HTMLElement;
 import com.randomnoun.jacoco.report.internal.html.IHTMLReportContext;
 import com.randomnoun.jacoco.report.internal.html.resources.Resources;
+import com.randomnoun.jacoco.report.internal.html.resources.Styles;
 
 /**
  * Page showing the content of a source file with numbered and highlighted
@@ -31,7 +39,7 @@ import com.randomnoun.jacoco.report.internal.html.resources.Resources;
  */
 public class SourceFilePage extends NodePage<ISourceNode> {
 
-	private final Reader sourceReader;
+	private Reader sourceReader;
 
 	private final int tabWidth;
 
@@ -60,14 +68,67 @@ public class SourceFilePage extends NodePage<ISourceNode> {
 		this.tabWidth = tabWidth;
 	}
 
+	@Override
+	protected void fingerprint(final Fingerprint fingerprint)
+			throws IOException {
+		super.fingerprint(fingerprint);
+		for (final ISourceNode node : getNodes()) {
+			if (node != null) {
+				fingerprint.add(node.getFirstLine()).add(node.getLastLine());
+				for (int nr = node.getFirstLine(); nr <= node
+						.getLastLine(); nr++) {
+					final ILine line = node.getLine(nr);
+					fingerprint.add(line.getInstructionCounter())
+							.add(line.getBranchCounter());
+				}
+			}
+		}
+		// the source is hashed while it is copied for rendering
+		final SourceCopy copy = new SourceCopy();
+		fingerprint.add(sourceReader, copy);
+		sourceReader.close();
+		sourceReader = copy.getReader();
+	}
+
+	@Override
+	protected List<String> getFileNames() {
+		final String name = getNode().getName();
+		if (isOverlay(context, getNodes().length)) {
+			return Arrays.asList(getFileName(name), getOverlayFileName(name));
+		}
+		return Collections.singletonList(getFileName(name));
+	}
+
 	@Override
 	protected void content(final HTMLElement body) throws IOException {
 		IBundleCoverage[] bundles = getParentBundlePage().getBundles();
-		final SourceHighlighter hl = new SourceHighlighter(context.getLocale());
+		final boolean overlay = isOverlay(context, bundles.length);
+		if (overlay) {
+			final String overlayFileName = getOverlayFileName(getNode().getName());
+			CoverageOverlay.write(getNodes(), context.getBranchTooltips(),
+					folder.createFile(overlayFileName));
+			runSelector(body, bundles, folder.getLink(folder, overlayFileName));
+		}
+		final SourceHighlighter hl = new SourceHighlighter(context.getBranchTooltips());
+		final int heatGutterRuns = context.getHeatGutterRuns();
+		hl.setHeatGutter(heatGutterRuns > 0 && bundles.length >= heatGutterRuns);
+		hl.setOverlay(overlay);
 		hl.render(body, bundles, getNodes(), sourceReader);
 		sourceReader.close();
 	}
 
+	private void runSelector(final HTMLElement body, final IBundleCoverage[] bundles,
+			final String overlayLink) throws IOException {
+		// the link is passed as attribute, so it is quoted like any other value
+		final HTMLElement select = body.div(Styles.OVERLAY)
+				.select("jacocoOverlay.select(this)");
+		select.attr("data-overlay", overlayLink);
+		select.option("").text("All runs");
+		for (int i = 0; i < bundles.length; i++) {
+			select.option(String.valueOf(i)).text(bundles[i].getName());
+		}
+	}
+
 	@Override
 	protected void head(final HTMLElement head) throws IOException {
 		super.head(head);
@@ -75,6 +136,10 @@ public class SourceFilePage extends NodePage<ISourceNode> {
 				Resources.PRETTIFY_STYLESHEET), "text/css");
 		head.script(context.getResources().getLink(folder,
 				Resources.PRETTIFY_SCRIPT));
+		if (isOverlay(context, getNodes().length)) {
+			head.script(context.getResources().getLink(folder,
+					Resources.OVERLAY_SCRIPT));
+		}
 	}
 
 	@Override
@@ -85,7 +150,60 @@ public class SourceFilePage extends NodePage<ISourceNode> {
 
 	@Override
 	protected String getFileName() {
-		return getNode().getName() + ".html";
+		return getFileName(getNode().getName());
+	}
+
+	/**
+	 * Returns the local file name of the page for the given source file.
+	 *
+	 * @param sourceName
+	 *            name of the source file
+	 * @return local file name
+	 */
+	static String getFileName(final String sourceName) {
+		return sourceName + ".html";
+	}
+
+	/**
+	 * Returns the local file name of the coverage overlay script for the given
+	 * source file.
+	 *
+	 * @param sourceName
+	 *            name of the source file
+	 * @return local file name
+	 */
+	static String getOverlayFileName(final String sourceName) {
+		return sourceName + ".js";
+	}
+
+	/**
+	 * Checks whether source pages show the coverage of the individual runs
+	 * with a script overlay.
+	 *
+	 * @param context
+	 *            settings context
+	 * @param runs
+	 *            number of runs in the report
+	 * @return <code>true</code> if an overlay is used
+	 */
+	static boolean isOverlay(final IHTMLReportContext context, final int runs) {
+		final int overlayRuns = context.getCoverageOverlayRuns();
+		return overlayRuns > 0 && runs >= overlayRuns;
+	}
+
+	/**
+	 * Copy of the source which is read without copying the characters again.
+	 */
+	private static class SourceCopy extends CharArrayWriter {
+
+		SourceCopy() {
+			super(8192);
+		}
+
+		Reader getReader() {
+			return new CharArrayReader(buf, 0, count);
+		}
+
 	}
 
 }
@@ -15,13 +15,13 @@ package com.randomnoun.jacoco.report.internal.html.page;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
-import java.util.Locale;
 
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.ICounter;
 import org.jacoco.core.analysis.ILine;
 import org.jacoco.core.analysis.ISourceNode;
 
+import com.randomnoun.jacoco.report.internal.html.BranchTooltips;
 import com.randomnoun.jacoco.report.internal.html.HTMLElement;
 import com.randomnoun.jacoco.report.internal.html.resources.Styles;
 
@@ -30,18 +30,44 @@ import com.randomnoun.jacoco.report.internal.html.resources.Styles;
  */
 final class SourceHighlighter {
 
-	private final Locale locale;
+	/** number of counter states, ICounter.EMPTY to ICounter.PARTLY_COVERED */
+	private static final int STATUS_COUNT = 4;
+
+	/** class attribute of a branch marker, indexed by line and branch status */
+	private static final String[][] BRANCH_MARKER_STYLES = new String[STATUS_COUNT][STATUS_COUNT];
+
+	static {
+		for (int s1 = 0; s1 < STATUS_COUNT; s1++) {
+			for (int s2 = 0; s2 < STATUS_COUNT; s2++) {
+				final String style1 = getStyle1(s1);
+				final String style2 = getBranchStyle(s2);
+				BRANCH_MARKER_STYLES[s1][s2] = style1 == null ? style2 : style1 + " " + style2;
+			}
+		}
+	}
+
+	/** line status per bundle of the current line */
+	private int[] lineStatus = new int[0];
+
+	/** id of the current line, 'L' followed by the line number */
+	private final char[] lineId = { 'L', 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+	private final BranchTooltips tooltips;
 
 	private String lang;
 
+	private boolean heatGutter;
+
+	private boolean overlay;
+
 	/**
 	 * Creates a new highlighter with default settings.
 	 *
-	 * @param locale
-	 *            locale for tooltip rendering
+	 * @param tooltips
+	 *            tooltips for branch markers
 	 */
-	public SourceHighlighter(final Locale locale) {
-		this.locale = locale;
+	public SourceHighlighter(final BranchTooltips tooltips) {
+		this.tooltips = tooltips;
 		lang = "java";
 	}
 
@@ -73,16 +99,59 @@ final class SourceHighlighter {
 		final HTMLElement pre = parent
 				.pre(Styles.SOURCE + " lang-" + lang + " linenums");
 		final BufferedReader lineBuffer = new BufferedReader(contents);
+		// lines of every bundle by line number, so the loop only indexes arrays
+		final ILine[][] index = new ILine[source.length][];
+		final int[] firstLines = new int[source.length];
+		for (int i = 0; i < source.length; i++) {
+			index[i] = createLineIndex(source[i]);
+			firstLines[i] = index[i] == null ? 0 : source[i].getFirstLine();
+		}
+		final ILine[] lines = new ILine[source.length];
 		String line;
 		int nr = 0;
-		ILine[] lines = new ILine[source.length];
 		while ((line = lineBuffer.readLine()) != null) {
 			nr++;
-			for (int i=0; i<source.length; i++) {
-				lines[i] = source[i] == null ? null : source[i].getLine(nr);
+			for (int i = 0; i < source.length; i++) {
+				final int offset = nr - firstLines[i];
+				lines[i] = index[i] == null || offset < 0
+						|| offset >= index[i].length ? null : index[i][offset];
 			}
-			renderCodeLine(pre, line, bundles, lines, nr); // source.getLine(nr)
+			renderCodeLine(pre, line, bundles, lines, nr);
+		}
+	}
+
+	/**
+	 * Creates the lines of a source node, starting with its first line, or
+	 * <code>null</code> if the node has no line information.
+	 */
+	private static ILine[] createLineIndex(final ISourceNode node) {
+		if (node == null || node.getFirstLine() == ISourceNode.UNKNOWN_LINE) {
+			return null;
+		}
+		final int first = node.getFirstLine();
+		final ILine[] index = new ILine[node.getLastLine() - first + 1];
+		for (int i = 0; i < index.length; i++) {
+			index[i] = node.getLine(first + i);
 		}
+		return index;
+	}
+
+	/**
+	 * Writes the id of the given line to {@link #lineId}.
+	 *
+	 * @return length of the id
+	 */
+	private int formatLineId(final int lineNr) {
+		int length = 2;
+		for (int n = lineNr; n >= 10; n /= 10) {
+			length++;
+		}
+		int n = lineNr;
+		for (int i = length - 1; i > 0; i--) {
+			lineId[i] = (char) ('0' + n % 10);
+			n /= 10;
+		}
+		return length;
 	}
 
 	private void renderCodeLine(final HTMLElement pre, final String linesrc,
@@ -91,7 +160,33 @@ final class SourceHighlighter {
 		pre.text("\n");
 	}
 
-	private String getStyle1(int counterStatus) {
+	/**
+	 * Specifies whether every line gets a single heat gutter which summarizes
+	 * the coverage of all runs, instead of a branch marker per run. This
+	 * keeps source pages of reports with many runs small. Default is
+	 * <code>false</code>.
+	 *
+	 * @param heatGutter
+	 *            <code>true</code> for a heat gutter
+	 */
+	public void setHeatGutter(final boolean heatGutter) {
+		this.heatGutter = heatGutter;
+	}
+
+	/**
+	 * Specifies whether the per run coverage is left to a script overlay. The
+	 * highlighter then only renders the combined coverage of all runs, with
+	 * a single gutter per line which the overlay uses for the branch marker
+	 * of the selected run. Default is <code>false</code>.
+	 *
+	 * @param overlay
+	 *            <code>true</code> if an overlay shows the per run coverage
+	 */
+	public void setOverlay(final boolean overlay) {
+		this.overlay = overlay;
+	}
+
+	private static String getStyle1(int counterStatus) {
 		switch (counterStatus) {
 			case ICounter.NOT_COVERED:
 				return Styles.NOT_COVERED;
@@ -103,17 +198,90 @@ final class SourceHighlighter {
 				return null;
 		}
 	}
-	
+
+	private static String getBranchStyle(int counterStatus) {
+		switch (counterStatus) {
+			case ICounter.NOT_COVERED:
+				return Styles.BRANCH_NOT_COVERED;
+			case ICounter.FULLY_COVERED:
+				return Styles.BRANCH_FULLY_COVERED;
+			case ICounter.PARTLY_COVERED:
+				return Styles.BRANCH_PARTLY_COVERED;
+			default:
+				return Styles.BRANCH_SKIP;
+		}
+	}
+
+	private static final String[] HEAT_STYLES = {
+		Styles.combine(Styles.HEAT, Styles.HEAT_0),
+		Styles.combine(Styles.HEAT, Styles.HEAT_1),
+		Styles.combine(Styles.HEAT, Styles.HEAT_2),
+		Styles.combine(Styles.HEAT, Styles.HEAT_3),
+		Styles.combine(Styles.HEAT, Styles.HEAT_4)
+	};
+
+	/**
+	 * Heat level of a line, from 0 if no run covers the line to 4 if all runs
+	 * fully cover it. Partly covered runs count half.
+	 */
+	private static int getHeatLevel(final int fully, final int partly, final int runs) {
+		if (fully == runs) {
+			return 4;
+		}
+		final int score = 2 * fully + partly;
+		if (score == 0) {
+			return 0;
+		}
+		return 1 + Math.min(2, 3 * score / (2 * runs));
+	}
+
+	/**
+	 * Renders a single gutter per line which summarizes all runs, either as a
+	 * heat gutter or as an empty placeholder for the overlay.
+	 */
+	private HTMLElement highlightSummary(final HTMLElement pre, final ILine[] line, final int lineNr) throws IOException {
+		int fully = 0, partly = 0, missed = 0;
+		for (int i = 0; i < line.length; i++) {
+			// bundles without this source file have no line information
+			switch (line[i] == null ? ICounter.EMPTY : line[i].getStatus()) {
+				case ICounter.FULLY_COVERED -> fully++;
+				case ICounter.PARTLY_COVERED -> partly++;
+				case ICounter.NOT_COVERED -> missed++;
+				default -> { }
+			}
+		}
+		final int runs = fully + partly + missed;
+		if (runs == 0) {
+			pre.marker(heatGutter ? Styles.HEAT : Styles.BRANCH_SKIP, null);
+			return pre; // no coverage in any bundle
+		}
+		if (heatGutter) {
+			pre.marker(HEAT_STYLES[getHeatLevel(fully, partly, runs)],
+					tooltips.getHeat(fully, partly, missed, line.length));
+		} else {
+			pre.marker(Styles.BRANCH_SKIP, null);
+		}
+
+		final String style = fully > 0 ? Styles.FULLY_COVERED : partly > 0 ? Styles.PARTLY_COVERED : Styles.NOT_COVERED;
+		return pre.styledSpan(style, lineId, formatLineId(lineNr));
+	}
+
 	// this is going to be a barrel of laughs
 	HTMLElement highlight(final HTMLElement pre, IBundleCoverage[] bundles, final ILine[] line, final int lineNr) throws IOException {
+		if (heatGutter || overlay) {
+			return highlightSummary(pre, line, lineNr);
+		}
 		final String style;
 		
 		// so it'll go no info -> not covered -> partly covered -> fully covered
-		String style1s[] = new String[line.length];
+		if (lineStatus.length != line.length) {
+			lineStatus = new int[line.length];
+		}
 		int allStatus = 0; // 0 == null
 		for (int i=0; i<line.length; i++) {
-			int s = line[i].getStatus();
-			style1s[i] = getStyle1(s);
+			// bundles without this source file have no line information
+			int s = line[i] == null ? ICounter.EMPTY : line[i].getStatus();
+			lineStatus[i] = s;
 			if (i==0) {
 				allStatus = switch (s) {
 					case ICounter.FULLY_COVERED -> ICounter.FULLY_COVERED;
@@ -133,52 +301,28 @@ final class SourceHighlighter {
 		style = getStyle1(allStatus);
 		if (style == null) {
 			for (int i = 0; i < line.length; i++) {
-				HTMLElement span = pre.span("bskip");
-				span.text(" ");
+				pre.marker(Styles.BRANCH_SKIP, null);
 			}
 			return pre; // no coverage in any bundle
 		}
 		
 		// same again for branch counters
 		for (int i=0; i<line.length; i++) {
-			ICounter branches = line[i].getBranchCounter();
-			final Integer missed = Integer.valueOf(branches.getMissedCount());
-			final Integer total = Integer.valueOf(branches.getTotalCount());
-			String s2 = null, t2 = null;
-			switch (branches.getStatus()) {
-				case ICounter.NOT_COVERED:
-					s2 = Styles.BRANCH_NOT_COVERED; 
-					t2 = String.format(locale, "All %2$d branches missed.", missed, total);
-					break;
-				case ICounter.FULLY_COVERED:
-					s2 = Styles.BRANCH_FULLY_COVERED;
-					t2 = String.format(locale, "All %2$d branches covered.", missed, total);
-					break;
-				case ICounter.PARTLY_COVERED:
-					s2 = Styles.BRANCH_PARTLY_COVERED;
-					t2 = String.format(locale, "%1$d of %2$d branches missed.", missed, total);
-					break;
-				default:
-					s2 = null; t2 = null;
-			}
-			if (s2 != null) {
-				HTMLElement span = pre.span(style1s[i] == null ? s2 : style1s[i] + " " + s2);
-				span.attr("title", bundles[i].getName() + ": " + t2);
-				span.text(" "); 
-				// need text otherwise it doesn't close properly ( reports have DOCTYPE HTML in them, which doesn't allow self-closing spans )
-				// also, those non-self-closing spans cause stack overflows in chrome
-				// also, need a space character for the span to take up any space in the layout
-			} else {
-				HTMLElement span = pre.span(style1s[i] == null ? s2 : style1s[i] + " bskip");
-				span.text(" ");
+			if (line[i] == null) {
+				pre.marker(Styles.BRANCH_SKIP, null);
+				continue;
 			}
+			ICounter branches = line[i].getBranchCounter();
+			final int branchStatus = branches.getStatus();
+			// markers need text, reports have DOCTYPE HTML in them, which
+			// doesn't allow self-closing spans (they also cause stack
+			// overflows in chrome)
+			pre.marker(BRANCH_MARKER_STYLES[lineStatus[i]][branchStatus],
+					branchStatus == ICounter.EMPTY ? null
+							: tooltips.get(bundles[i].getName(), branches));
 		}
 
-		
-		final String lineId = "L" + Integer.toString(lineNr);
-		HTMLElement span = pre.span(style, lineId);
-		return span;
-		
+		return pre.styledSpan(style, lineId, formatLineId(lineNr));
 	}
 
 }
@@ -20,6 +20,7 @@ import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.ICoverageNode;
 
 import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
+import com.randomnoun.jacoco.report.internal.html.Fingerprint;
 import com.randomnoun.jacoco.report.internal.html.HTMLElement;
 import com.randomnoun.jacoco.report.internal.html.IHTMLReportContext;
 import com.randomnoun.jacoco.report.internal.html.resources.Resources;
@@ -64,6 +65,24 @@ public abstract class TablePage<NodeType extends ICoverageNode>
 		items.add(item);
 	}
 
+	@Override
+	public void render() throws IOException {
+		super.render();
+		// free memory, otherwise we will keep the complete page tree:
+		items.clear();
+	}
+
+	@Override
+	protected void fingerprint(final Fingerprint fingerprint)
+			throws IOException {
+		super.fingerprint(fingerprint);
+		fingerprint.add(items.size());
+		for (final ITableItem item : items) {
+			fingerprint.add(item.getLinkLabel()).add(item.getLinkStyle())
+					.add(item.getLink(folder)).add(item.getNodes());
+		}
+	}
+
 	@Override
 	protected void head(final HTMLElement head) throws IOException {
 		super.head(head);
@@ -74,8 +93,6 @@ public abstract class TablePage<NodeType extends ICoverageNode>
 	protected void content(final HTMLElement body) throws IOException {
 		IBundleCoverage[] bundles = getParentBundlePage().getBundles();
 		context.getTable(bundles).render(body, items, getNodes(), context.getResources(), folder);
-		// free memory, otherwise we will keep the complete page tree:
-		items.clear();
 	}
 
 }
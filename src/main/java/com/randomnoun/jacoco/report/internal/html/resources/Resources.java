@@ -15,6 +15,13 @@ package com.randomnoun.jacoco.report.internal.html.resources;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jacoco.core.analysis.ICoverageNode.ElementType;
 
@@ -38,14 +45,36 @@ public class Resources {
 	/** The name of the sort script */
 	public static final String SORT_SCRIPT = "sort.js";
 
+	/** The name of the coverage overlay script */
+	public static final String OVERLAY_SCRIPT = "overlay.js";
+
 	/** The name of the red part of the coverage bar */
 	public static final String REDBAR = "redbar.gif";
 
 	/** The name of the green part of the coverage bar */
 	public static final String GREENBAR = "greenbar.gif";
 
+	/** All static resources which are copied into the report */
+	private static final String[] RESOURCES = { STYLESHEET, "report.gif",
+			"group.gif", "bundle.gif", "package.gif", "source.gif", "class.gif",
+			"method.gif", "session.gif", "sort.gif", "up.gif", "down.gif",
+			"branchfc.gif", "branchnc.gif", "branchpc.gif", REDBAR, GREENBAR,
+			PRETTIFY_STYLESHEET, PRETTIFY_SCRIPT, SORT_SCRIPT, OVERLAY_SCRIPT };
+
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	/** Digests of the bundled resources, created on first use */
+	private static volatile Map<String, byte[]> manifest;
+
+	/** Folder of the resources within the report, if any */
 	private final ReportOutputFolder folder;
 
+	/** Shared resource location relative to the report root, if any */
+	private final String sharedPath;
+
+	/** Links to the resources, per folder the links are placed in */
+	private final ConcurrentMap<ReportOutputFolder, ConcurrentMap<String, String>> links = new ConcurrentHashMap<ReportOutputFolder, ConcurrentMap<String, String>>();
+
 	/**
 	 * Attaches resources to the report with the given root folder.
 	 *
@@ -54,10 +83,27 @@ public class Resources {
 	 */
 	public Resources(final ReportOutputFolder root) {
 		folder = root.subFolder("jacoco-resources");
+		sharedPath = null;
+	}
+
+	/**
+	 * Attaches resources from a shared location outside of the report. Links
+	 * point to this location and no resources are copied into the report, so
+	 * multiple reports can use the same copy of the resources.
+	 *
+	 * @param sharedLink
+	 *            link to the folder with the resources, relative to the root
+	 *            folder of the report, e.g. <code>../jacoco-resources</code>
+	 * @see #copyResources(ReportOutputFolder, boolean)
+	 */
+	public Resources(final String sharedLink) {
+		folder = null;
+		sharedPath = sharedLink.endsWith("/") ? sharedLink : sharedLink + "/";
 	}
 
 	/**
-	 * Returns a relative link to a static resource.
+	 * Returns a relative link to a static resource. Links are created once
+	 * per base folder and resource.
 	 *
 	 * @param base
 	 *            base folder from where the link should be created
@@ -66,7 +112,17 @@ public class Resources {
 	 * @return relative link
 	 */
 	public String getLink(final ReportOutputFolder base, final String name) {
-		return folder.getLink(base, name);
+		ConcurrentMap<String, String> folderLinks = links.get(base);
+		if (folderLinks == null) {
+			folderLinks = links.computeIfAbsent(base,
+					b -> new ConcurrentHashMap<String, String>());
+		}
+		final String link = folderLinks.get(name);
+		if (link != null) {
+			return link;
+		}
+		return folderLinks.computeIfAbsent(name, n -> folder == null
+				? base.getRootLink(sharedPath + n) : folder.getLink(base, n));
 	}
 
 	/**
@@ -101,38 +157,103 @@ public class Resources {
 	 *             if the resources can't be written to the report
 	 */
 	public void copyResources() throws IOException {
-		copyResource(STYLESHEET);
-		copyResource("report.gif");
-		copyResource("group.gif");
-		copyResource("bundle.gif");
-		copyResource("package.gif");
-		copyResource("source.gif");
-		copyResource("class.gif");
-		copyResource("method.gif");
-		copyResource("session.gif");
-		copyResource("sort.gif");
-		copyResource("up.gif");
-		copyResource("down.gif");
-		copyResource("branchfc.gif");
-		copyResource("branchnc.gif");
-		copyResource("branchpc.gif");
-		copyResource(REDBAR);
-		copyResource(GREENBAR);
-		copyResource(PRETTIFY_STYLESHEET);
-		copyResource(PRETTIFY_SCRIPT);
-		copyResource(SORT_SCRIPT);
+		copyResources(false);
+	}
+
+	/**
+	 * Copies all static resources into the report. Optionally resources which
+	 * already exist in the report with the same content are not written again.
+	 * This requires a report output which can read existing files, otherwise
+	 * all resources are copied. Nothing is copied for shared resources.
+	 *
+	 * @param skipUnchanged
+	 *            if <code>true</code> resources which are byte-identical in
+	 *            the report are skipped
+	 * @throws IOException
+	 *             if the resources can't be written to the report
+	 */
+	public void copyResources(final boolean skipUnchanged) throws IOException {
+		if (folder != null) {
+			copyResources(folder, skipUnchanged);
+		}
 	}
 
-	private void copyResource(final String name) throws IOException {
-		final InputStream in = Resources.class.getResourceAsStream(name);
-		final OutputStream out = folder.createFile(name);
-		final byte[] buffer = new byte[256];
+	/**
+	 * Copies all static resources into the given folder, for example to
+	 * provide the shared location for multiple reports.
+	 *
+	 * @param folder
+	 *            folder to copy the resources to
+	 * @param skipUnchanged
+	 *            if <code>true</code> resources which are byte-identical in
+	 *            the folder are skipped
+	 * @throws IOException
+	 *             if the resources can't be written
+	 */
+	public static void copyResources(final ReportOutputFolder folder,
+			final boolean skipUnchanged) throws IOException {
+		final Map<String, byte[]> digests = skipUnchanged ? getManifest()
+				: null;
+		for (final String name : RESOURCES) {
+			if (digests != null
+					&& isUnchanged(folder, name, digests.get(name))) {
+				continue;
+			}
+			copyResource(folder, name);
+		}
+	}
+
+	private static boolean isUnchanged(final ReportOutputFolder folder,
+			final String name, final byte[] digest) throws IOException {
+		final InputStream in = folder.openFile(name);
+		if (in == null) {
+			return false;
+		}
+		try (InputStream existing = in) {
+			return Arrays.equals(digest, digest(existing));
+		}
+	}
+
+	private static void copyResource(final ReportOutputFolder folder,
+			final String name) throws IOException {
+		try (InputStream in = Resources.class.getResourceAsStream(name);
+				OutputStream out = folder.createFile(name)) {
+			in.transferTo(out);
+		}
+	}
+
+	/**
+	 * Returns the digests of all bundled resources. The resources can't change
+	 * at runtime, so the digests are only calculated once.
+	 */
+	private static Map<String, byte[]> getManifest() throws IOException {
+		Map<String, byte[]> m = manifest;
+		if (m == null) {
+			m = new HashMap<String, byte[]>();
+			for (final String name : RESOURCES) {
+				try (InputStream in = Resources.class
+						.getResourceAsStream(name)) {
+					m.put(name, digest(in));
+				}
+			}
+			manifest = m;
+		}
+		return m;
+	}
+
+	private static byte[] digest(final InputStream in) throws IOException {
+		final MessageDigest md;
+		try {
+			md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new AssertionError(e);
+		}
+		final byte[] buffer = new byte[8192];
 		int len;
 		while ((len = in.read(buffer)) != -1) {
-			out.write(buffer, 0, len);
+			md.update(buffer, 0, len);
 		}
-		in.close();
-		out.close();
+		return md.digest();
 	}
 
 }
@@ -104,6 +104,27 @@ public final class Styles {
 	/** Part of source code where branches are fully covered */
 	public static final String BRANCH_FULLY_COVERED = "bfc";
 
+	/** Selection of the run shown in a source page */
+	public static final String OVERLAY = "overlay";
+
+	/** Heat gutter of a source line which summarizes all runs */
+	public static final String HEAT = "heat";
+
+	/** Heat level of a line which is not covered in any run */
+	public static final String HEAT_0 = "h0";
+
+	/** Heat level of a line which is covered in a few runs */
+	public static final String HEAT_1 = "h1";
+
+	/** Heat level of a line which is covered in about half of the runs */
+	public static final String HEAT_2 = "h2";
+
+	/** Heat level of a line which is covered in most runs */
+	public static final String HEAT_3 = "h3";
+
+	/** Heat level of a line which is fully covered in all runs */
+	public static final String HEAT_4 = "h4";
+
 	/**
 	 * Returns a combined style from the given styles.
 	 *
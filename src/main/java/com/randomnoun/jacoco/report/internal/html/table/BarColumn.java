@@ -13,12 +13,10 @@
 package com.randomnoun.jacoco.report.internal.html.table;
 
 import java.io.IOException;
-import java.text.NumberFormat;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 
-import org.jacoco.core.analysis.CounterComparator;
 import org.jacoco.core.analysis.ICounter;
 import org.jacoco.core.analysis.ICoverageNode;
 import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
@@ -41,7 +39,7 @@ public class BarColumn implements INewColumnRenderer {
 	
 	private final CounterEntity entity;
 
-	private final NumberFormat integerFormat;
+	private final CellFormat cellFormat;
 
 	private int max;
 
@@ -59,41 +57,34 @@ public class BarColumn implements INewColumnRenderer {
 	public BarColumn(int itemIdx, final CounterEntity entity, final Locale locale) {
 		this.itemIdx = itemIdx;
 		this.entity = entity;
-		this.integerFormat = NumberFormat.getIntegerInstance(locale);
+		this.cellFormat = new CellFormat(locale);
 		this.comparator = new TableItemComparator(
-				CounterComparator.MISSEDITEMS.reverse().on(entity).second(
-						CounterComparator.TOTALITEMS.reverse().on(entity)));
+				TableItemComparator.Ordering.BAR, entity);
 	}
 
 	public boolean init(final List<? extends ITableItem> items,
-			final ICoverageNode[] total) {
-		this.max = 0;
-		for (final ITableItem item : items) {
-			final int count = item.getNodes()[itemIdx].getCounter(entity).getTotalCount();
-			if (count > this.max) {
-				this.max = count;
-			}
-		}
+			final CounterMatrix counters, final ICoverageNode[] total) {
+		this.max = counters.getMaxTotal(itemIdx, entity);
 		return true;
 	}
 
 	public void footer(final HTMLElement td, final ICoverageNode[] total,
 			final Resources resources, final ReportOutputFolder base)
 			throws IOException {
-		final ICounter counter = total[itemIdx].getCounter(entity);
-		td.text(integerFormat.format(counter.getMissedCount()));
+		final ICounter counter = NodeCounters.getCounter(total, itemIdx, entity);
+		td.text(cellFormat.formatInteger(counter.getMissedCount()));
 		td.text(" of ");
-		td.text(integerFormat.format(counter.getTotalCount()));
+		td.text(cellFormat.formatInteger(counter.getTotalCount()));
 	}
 
 	public void item(final HTMLElement td, final ITableItem item,
+			final CounterMatrix counters, final int row,
 			final Resources resources, final ReportOutputFolder base)
 			throws IOException {
 		if (max > 0) {
-			final ICounter counter = item.getNodes()[itemIdx].getCounter(entity);
-			final int missed = counter.getMissedCount();
+			final int missed = counters.getMissed(row, itemIdx, entity);
 			bar(td, missed, Resources.REDBAR, resources, base);
-			final int covered = counter.getCoveredCount();
+			final int covered = counters.getCovered(row, itemIdx, entity);
 			bar(td, covered, Resources.GREENBAR, resources, base);
 		}
 	}
@@ -104,7 +95,7 @@ public class BarColumn implements INewColumnRenderer {
 		final int width = count * WIDTH / max;
 		if (width > 0) {
 			td.img(resources.getLink(base, image), width, 10,
-					integerFormat.format(count));
+					cellFormat.formatInteger(count));
 		}
 	}
 
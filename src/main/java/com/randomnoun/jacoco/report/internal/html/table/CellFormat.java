@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html.table;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Locale specific formatting of the numbers in table cells. The text of all
+ * percentages and of small integers is created once per locale and shared by
+ * all tables, larger integers are formatted on demand. Instances are not
+ * thread safe.
+ */
+final class CellFormat {
+
+	/** Integers below this value are formatted in advance */
+	private static final int CACHED_INTEGERS = 1024;
+
+	private static final ConcurrentMap<Locale, String[]> INTEGERS = new ConcurrentHashMap<Locale, String[]>();
+
+	private static final ConcurrentMap<Locale, String[]> PERCENTAGES = new ConcurrentHashMap<Locale, String[]>();
+
+	private final NumberFormat integerFormat;
+
+	private final String[] integers;
+
+	private final String[] percentages;
+
+	/**
+	 * Creates a new formatter.
+	 *
+	 * @param locale
+	 *            locale for rendering numbers
+	 */
+	CellFormat(final Locale locale) {
+		this.integerFormat = NumberFormat.getIntegerInstance(locale);
+		this.integers = INTEGERS.computeIfAbsent(locale,
+				CellFormat::createIntegers);
+		this.percentages = PERCENTAGES.computeIfAbsent(locale,
+				CellFormat::createPercentages);
+	}
+
+	private static String[] createIntegers(final Locale locale) {
+		final NumberFormat format = NumberFormat.getIntegerInstance(locale);
+		final String[] texts = new String[CACHED_INTEGERS];
+		for (int i = 0; i < texts.length; i++) {
+			texts[i] = format.format(i);
+		}
+		return texts;
+	}
+
+	private static String[] createPercentages(final Locale locale) {
+		final NumberFormat format = NumberFormat.getPercentInstance(locale);
+		final String[] texts = new String[101];
+		for (int i = 0; i < texts.length; i++) {
+			texts[i] = format.format(BigDecimal.valueOf(i, 2));
+		}
+		return texts;
+	}
+
+	/**
+	 * Formats an integer value.
+	 *
+	 * @param value
+	 *            value to format
+	 * @return text for the value
+	 */
+	String formatInteger(final int value) {
+		if (value >= 0 && value < CACHED_INTEGERS) {
+			return integers[value];
+		}
+		return integerFormat.format(value);
+	}
+
+	/**
+	 * Formats the covered ratio as a whole percentage. The ratio is rounded
+	 * down, so 199/(1+199)=0.995 is displayed as "99%", not as "100%".
+	 *
+	 * @param covered
+	 *            number of covered items
+	 * @param total
+	 *            total number of items, must be greater than 0
+	 * @return text for the percentage
+	 */
+	String formatPercentage(final int covered, final int total) {
+		return percentages[(int) (100L * covered / total)];
+	}
+
+}
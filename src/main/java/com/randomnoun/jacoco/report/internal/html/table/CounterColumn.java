@@ -13,12 +13,10 @@
 package com.randomnoun.jacoco.report.internal.html.table;
 
 import java.io.IOException;
-import java.text.NumberFormat;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 
-import org.jacoco.core.analysis.CounterComparator;
 import org.jacoco.core.analysis.ICounter;
 import org.jacoco.core.analysis.ICoverageNode;
 import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
@@ -49,10 +47,10 @@ public abstract class CounterColumn implements INewColumnRenderer {
 	public static CounterColumn newTotal(int itemIdx, final CounterEntity entity,
 			final Locale locale) {
 		return new CounterColumn(itemIdx, entity, locale,
-				CounterComparator.TOTALITEMS.reverse().on(entity)) {
+				TableItemComparator.Ordering.TOTAL) {
 			@Override
-			protected int getValue(final ICounter counter) {
-				return counter.getTotalCount();
+			protected int getValue(final int missed, final int covered) {
+				return missed + covered;
 			}
 		};
 	}
@@ -69,10 +67,10 @@ public abstract class CounterColumn implements INewColumnRenderer {
 	public static CounterColumn newMissed(int itemIdx, final CounterEntity entity,
 			final Locale locale) {
 		return new CounterColumn(itemIdx, entity, locale,
-				CounterComparator.MISSEDITEMS.reverse().on(entity)) {
+				TableItemComparator.Ordering.MISSED) {
 			@Override
-			protected int getValue(final ICounter counter) {
-				return counter.getMissedCount();
+			protected int getValue(final int missed, final int covered) {
+				return missed;
 			}
 		};
 	}
@@ -89,10 +87,10 @@ public abstract class CounterColumn implements INewColumnRenderer {
 	public static CounterColumn newCovered(int itemIdx, final CounterEntity entity,
 			final Locale locale) {
 		return new CounterColumn(itemIdx, entity, locale,
-				CounterComparator.COVEREDITEMS.reverse().on(entity)) {
+				TableItemComparator.Ordering.COVERED) {
 			@Override
-			protected int getValue(final ICounter counter) {
-				return counter.getCoveredCount();
+			protected int getValue(final int missed, final int covered) {
+				return covered;
 			}
 		};
 	}
@@ -101,7 +99,7 @@ public abstract class CounterColumn implements INewColumnRenderer {
 	
 	private final CounterEntity entity;
 
-	private final NumberFormat integerFormat;
+	private final CellFormat cellFormat;
 
 	private final Comparator<ITableItem> comparator;
 
@@ -113,43 +111,41 @@ public abstract class CounterColumn implements INewColumnRenderer {
 	 *            counter entity for this column
 	 * @param locale
 	 *            locale for rendering numbers
-	 * @param comparator
-	 *            comparator for the nodes of this column
+	 * @param ordering
+	 *            ordering of the items of this column
 	 */
 	protected CounterColumn(int itemIdx, final CounterEntity entity, final Locale locale,
-			final Comparator<ICoverageNode> comparator) {
+			final TableItemComparator.Ordering ordering) {
 		this.itemIdx = itemIdx;
 		this.entity = entity;
-		this.integerFormat = NumberFormat.getIntegerInstance(locale);
-		this.comparator = new TableItemComparator(comparator);
+		this.cellFormat = new CellFormat(locale);
+		this.comparator = new TableItemComparator(ordering, entity);
 	}
 
 	public boolean init(final List<? extends ITableItem> items,
-			final ICoverageNode[] total) {
-		for (final ITableItem i : items) {
-			if (i.getNodes()[itemIdx].getCounter(entity).getTotalCount() > 0) {
-				return true;
-			}
-		}
-		return false;
+			final CounterMatrix counters, final ICoverageNode[] total) {
+		return counters.getMaxTotal(itemIdx, entity) > 0;
 	}
 
 	public void footer(final HTMLElement td, final ICoverageNode total[],
 			final Resources resources, final ReportOutputFolder base)
 			throws IOException {
-		cell(td, total[itemIdx]);
+		final ICounter counter = NodeCounters.getCounter(total, itemIdx, entity);
+		cell(td, counter.getMissedCount(), counter.getCoveredCount());
 	}
 
 	public void item(final HTMLElement td, final ITableItem item,
+			final CounterMatrix counters, final int row,
 			final Resources resources, final ReportOutputFolder base)
 			throws IOException {
-		cell(td, item.getNodes()[itemIdx]);
+		cell(td, counters.getMissed(row, itemIdx, entity),
+				counters.getCovered(row, itemIdx, entity));
 	}
 
-	private void cell(final HTMLElement td, final ICoverageNode node)
-			throws IOException {
-		final int value = getValue(node.getCounter(entity));
-		td.text(integerFormat.format(value));
+	private void cell(final HTMLElement td, final int missed,
+			final int covered) throws IOException {
+		final int value = getValue(missed, covered);
+		td.text(cellFormat.formatInteger(value));
 	}
 
 	public Comparator<ITableItem> getComparator() {
@@ -157,12 +153,14 @@ public abstract class CounterColumn implements INewColumnRenderer {
 	}
 
 	/**
-	 * Retrieves the respective value from the counter.
+	 * Retrieves the respective value from the counter values.
 	 *
-	 * @param counter
-	 *            counter object
+	 * @param missed
+	 *            number of missed items
+	 * @param covered
+	 *            number of covered items
 	 * @return value of interest
 	 */
-	protected abstract int getValue(ICounter counter);
+	protected abstract int getValue(int missed, int covered);
 
 }
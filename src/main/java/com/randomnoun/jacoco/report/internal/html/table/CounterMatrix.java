@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html.table;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
+
+/**
+ * The counters of all rows of a table, copied into a single primitive array
+ * once per table. Every row holds the missed and covered count of every
+ * counter entity of every bundle, so columns and comparators read adjacent
+ * array elements instead of navigating the coverage nodes of each cell.
+ * Bundles which do not contain the element of a row have empty counters. The
+ * largest total per bundle and counter entity is collected in the same pass,
+ * so columns do not need to scan the rows themselves.
+ *
+ * The array is reused when the matrix is initialized for the next table,
+ * instances must not be used in parallel.
+ */
+public final class CounterMatrix {
+
+	private static final CounterEntity[] ENTITIES = CounterEntity.values();
+
+	private int stride;
+
+	private int[] values = new int[0];
+
+	private int[] maxTotals = new int[0];
+
+	/**
+	 * Copies the counters of the given table rows.
+	 *
+	 * @param items
+	 *            rows of the table
+	 * @param bundleCount
+	 *            number of bundles per row
+	 */
+	void init(final List<? extends ITableItem> items, final int bundleCount) {
+		stride = bundleCount * ENTITIES.length * 2;
+		final int size = items.size() * stride;
+		if (values.length < size) {
+			values = new int[Math.max(size, values.length * 2)];
+		}
+		final int cells = bundleCount * ENTITIES.length;
+		if (maxTotals.length < cells) {
+			maxTotals = new int[cells];
+		} else {
+			Arrays.fill(maxTotals, 0, cells, 0);
+		}
+		int pos = 0;
+		for (final ITableItem item : items) {
+			final ICoverageNode[] nodes = item.getNodes();
+			int cell = 0;
+			for (int b = 0; b < bundleCount; b++) {
+				final ICoverageNode node = nodes[b];
+				for (final CounterEntity entity : ENTITIES) {
+					if (node == null) {
+						values[pos++] = 0;
+						values[pos++] = 0;
+					} else {
+						final ICounter counter = node.getCounter(entity);
+						final int missed = counter.getMissedCount();
+						final int covered = counter.getCoveredCount();
+						values[pos++] = missed;
+						values[pos++] = covered;
+						if (missed + covered > maxTotals[cell]) {
+							maxTotals[cell] = missed + covered;
+						}
+					}
+					cell++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the largest total number of items of all rows.
+	 *
+	 * @param bundle
+	 *            index of the bundle
+	 * @param entity
+	 *            counter entity
+	 * @return largest total number of items, 0 if there are no rows
+	 */
+	public int getMaxTotal(final int bundle, final CounterEntity entity) {
+		return maxTotals[bundle * ENTITIES.length + entity.ordinal()];
+	}
+
+	private int index(final int row, final int bundle,
+			final CounterEntity entity) {
+		return row * stride + (bundle * ENTITIES.length + entity.ordinal()) * 2;
+	}
+
+	/**
+	 * Returns the number of missed items.
+	 *
+	 * @param row
+	 *            index of the table row
+	 * @param bundle
+	 *            index of the bundle
+	 * @param entity
+	 *            counter entity
+	 * @return number of missed items
+	 */
+	public int getMissed(final int row, final int bundle,
+			final CounterEntity entity) {
+		return values[index(row, bundle, entity)];
+	}
+
+	/**
+	 * Returns the number of covered items.
+	 *
+	 * @param row
+	 *            index of the table row
+	 * @param bundle
+	 *            index of the bundle
+	 * @param entity
+	 *            counter entity
+	 * @return number of covered items
+	 */
+	public int getCovered(final int row, final int bundle,
+			final CounterEntity entity) {
+		return values[index(row, bundle, entity) + 1];
+	}
+
+	/**
+	 * Returns the total number of items.
+	 *
+	 * @param row
+	 *            index of the table row
+	 * @param bundle
+	 *            index of the bundle
+	 * @param entity
+	 *            counter entity
+	 * @return total number of items
+	 */
+	public int getTotal(final int row, final int bundle,
+			final CounterEntity entity) {
+		final int idx = index(row, bundle, entity);
+		return values[idx] + values[idx + 1];
+	}
+
+}
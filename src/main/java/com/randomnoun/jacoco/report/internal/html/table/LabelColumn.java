@@ -36,7 +36,7 @@ public class LabelColumn implements INewColumnRenderer {
 	};
 
 	public boolean init(final List<? extends ITableItem> items,
-			final ICoverageNode[] total) {
+			final CounterMatrix counters, final ICoverageNode[] total) {
 		return true;
 	}
 
@@ -47,6 +47,7 @@ public class LabelColumn implements INewColumnRenderer {
 	}
 
 	public void item(final HTMLElement td, final ITableItem item,
+			final CounterMatrix counters, final int row,
 			final Resources resources, final ReportOutputFolder base)
 			throws IOException {
 		td.a(item, base);
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html.table;
+
+import org.jacoco.core.analysis.CoverageNodeImpl;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
+import org.jacoco.core.analysis.ICoverageNode.ElementType;
+
+/**
+ * Access to the per bundle nodes of a table row. A bundle which does not
+ * contain the element of a row has a <code>null</code> node, which is shown
+ * as a node without any items.
+ */
+final class NodeCounters {
+
+	private static final ICoverageNode EMPTY = new CoverageNodeImpl(
+			ElementType.GROUP, "");
+
+	private NodeCounters() {
+	}
+
+	/**
+	 * Returns the node of the given bundle.
+	 *
+	 * @param nodes
+	 *            nodes per bundle
+	 * @param itemIdx
+	 *            index of the bundle
+	 * @return node or an empty node if the bundle does not contain the element
+	 */
+	static ICoverageNode getNode(final ICoverageNode[] nodes,
+			final int itemIdx) {
+		final ICoverageNode node = nodes[itemIdx];
+		return node == null ? EMPTY : node;
+	}
+
+	/**
+	 * Returns the counter of the given bundle.
+	 *
+	 * @param nodes
+	 *            nodes per bundle
+	 * @param itemIdx
+	 *            index of the bundle
+	 * @param entity
+	 *            counter entity
+	 * @return counter, which is empty if the bundle does not contain the
+	 *         element
+	 */
+	static ICounter getCounter(final ICoverageNode[] nodes, final int itemIdx,
+			final CounterEntity entity) {
+		return getNode(nodes, itemIdx).getCounter(entity);
+	}
+
+}
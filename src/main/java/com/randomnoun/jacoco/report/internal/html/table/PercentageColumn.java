@@ -13,14 +13,10 @@
 package com.randomnoun.jacoco.report.internal.html.table;
 
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.text.NumberFormat;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 
-import org.jacoco.core.analysis.CounterComparator;
 import org.jacoco.core.analysis.ICounter;
 import org.jacoco.core.analysis.ICoverageNode;
 import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
@@ -41,7 +37,7 @@ public class PercentageColumn implements INewColumnRenderer {
 	
 	private final CounterEntity entity;
 
-	private final NumberFormat percentageFormat;
+	private final CellFormat cellFormat;
 
 	private final Comparator<ITableItem> comparator;
 
@@ -57,50 +53,41 @@ public class PercentageColumn implements INewColumnRenderer {
 	public PercentageColumn(int itemIdx, final CounterEntity entity, final Locale locale) {
 		this.itemIdx = itemIdx;
 		this.entity = entity;
-		this.percentageFormat = NumberFormat.getPercentInstance(locale);
+		this.cellFormat = new CellFormat(locale);
 		comparator = new TableItemComparator(
-				CounterComparator.MISSEDRATIO.on(entity));
+				TableItemComparator.Ordering.MISSED_RATIO, entity);
 	}
 
 	public boolean init(final List<? extends ITableItem> items,
-			final ICoverageNode[] total) {
+			final CounterMatrix counters, final ICoverageNode[] total) {
 		return true;
 	}
 
 	public void footer(final HTMLElement td, final ICoverageNode[] total,
 			final Resources resources, final ReportOutputFolder base)
 			throws IOException {
-		cell(td, total[itemIdx]);
+		final ICounter counter = NodeCounters.getCounter(total, itemIdx, entity);
+		cell(td, counter.getMissedCount(), counter.getCoveredCount());
 	}
 
 	public void item(final HTMLElement td, final ITableItem item,
+			final CounterMatrix counters, final int row,
 			final Resources resources, final ReportOutputFolder base)
 			throws IOException {
-		cell(td, item.getNodes()[itemIdx]);
+		cell(td, counters.getMissed(row, itemIdx, entity),
+				counters.getCovered(row, itemIdx, entity));
 	}
 
-	private void cell(final HTMLElement td, final ICoverageNode node)
-			throws IOException {
-		final ICounter counter = node.getCounter(entity);
-		final int total = counter.getTotalCount();
+	private void cell(final HTMLElement td, final int missed,
+			final int covered) throws IOException {
+		final int total = missed + covered;
 		if (total == 0) {
 			td.text("n/a");
 		} else {
-			td.text(format(counter.getCoveredRatio()));
+			td.text(cellFormat.formatPercentage(covered, total));
 		}
 	}
 
-	/**
-	 * Ratio 199/(1+199)=0.995 must be displayed as "99%", not as "100%".
-	 * Unfortunately {@link NumberFormat} uses {@link RoundingMode#HALF_EVEN} by
-	 * default and ability to change available only starting from JDK 6, so
-	 * perform rounding using {@link RoundingMode#FLOOR} before formatting.
-	 */
-	private String format(double ratio) {
-		return percentageFormat.format(
-				BigDecimal.valueOf(ratio).setScale(2, RoundingMode.FLOOR));
-	}
-
 	public Comparator<ITableItem> getComparator() {
 		return comparator;
 	}
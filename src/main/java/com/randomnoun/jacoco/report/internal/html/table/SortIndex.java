@@ -12,8 +12,7 @@
  *******************************************************************************/
 package com.randomnoun.jacoco.report.internal.html.table;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
@@ -21,33 +20,33 @@ import java.util.List;
  * A index on a list of items sorted with a given {@link Comparator}. The index
  * does not change the list itself.
  *
+ * The items are sorted as a permutation of their indices with a stable merge
+ * sort. Comparators on the counters of the items compare the rows of the
+ * table's {@link CounterMatrix} instead of the items. The buffers are kept for
+ * the next initialization, so an index which is reused for the tables of many
+ * pages does not allocate per row.
+ *
  * @param <T>
  *            type of the items
  */
 final class SortIndex<T> {
 
-	private final Comparator<? super T> comparator;
-
-	private class Entry implements Comparable<Entry> {
+	/** Ranges up to this size are sorted with insertion sort */
+	private static final int INSERTION_SORT_THRESHOLD = 8;
 
-		final int idx;
+	private final Comparator<? super T> comparator;
 
-		final T item;
+	private final TableItemComparator rowComparator;
 
-		Entry(final int idx, final T item) {
-			this.idx = idx;
-			this.item = item;
-		}
+	private CounterMatrix counters;
 
-		public int compareTo(final Entry o) {
-			return comparator.compare(item, o.item);
-		}
+	private Object[] items = new Object[0];
 
-	}
+	private int[] order = new int[0];
 
-	private final List<Entry> list = new ArrayList<Entry>();
+	private int[] buffer = new int[0];
 
-	private int[] positions;
+	private int[] positions = new int[0];
 
 	/**
 	 * Creates a new index based in the given comparator.
@@ -57,6 +56,9 @@ final class SortIndex<T> {
 	 */
 	public SortIndex(final Comparator<? super T> comparator) {
 		this.comparator = comparator;
+		this.rowComparator = comparator instanceof TableItemComparator
+				? (TableItemComparator) comparator
+				: null;
 	}
 
 	/**
@@ -64,22 +66,81 @@ final class SortIndex<T> {
 	 *
 	 * @param items
 	 *            list of items
+	 * @param counters
+	 *            counters of the items, in the same order
 	 */
-	public void init(final List<? extends T> items) {
-		this.list.clear();
+	public void init(final List<? extends T> items,
+			final CounterMatrix counters) {
+		this.counters = counters;
+		final int size = items.size();
+		if (order.length < size) {
+			final int capacity = Math.max(size, order.length * 2);
+			this.items = new Object[capacity];
+			order = new int[capacity];
+			buffer = new int[capacity];
+			positions = new int[capacity];
+		}
 		int idx = 0;
 		for (final T i : items) {
-			final Entry entry = new Entry(idx++, i);
-			this.list.add(entry);
+			this.items[idx] = i;
+			order[idx] = idx;
+			idx++;
 		}
-		Collections.sort(list);
-		if (positions == null || positions.length < items.size()) {
-			positions = new int[items.size()];
+		sort(0, size);
+		for (int pos = 0; pos < size; pos++) {
+			positions[order[pos]] = pos;
 		}
-		int pos = 0;
-		for (final Entry e : this.list) {
-			positions[e.idx] = pos++;
+		// do not keep the items of this table alive
+		Arrays.fill(this.items, 0, size, null);
+		this.counters = null;
+	}
+
+	/**
+	 * Sorts the range [from, to) of the order array.
+	 */
+	private void sort(final int from, final int to) {
+		if (to - from <= INSERTION_SORT_THRESHOLD) {
+			for (int i = from + 1; i < to; i++) {
+				final int idx = order[i];
+				int j = i - 1;
+				while (j >= from && compare(order[j], idx) > 0) {
+					order[j + 1] = order[j];
+					j--;
+				}
+				order[j + 1] = idx;
+			}
+			return;
+		}
+		final int mid = (from + to) >>> 1;
+		sort(from, mid);
+		sort(mid, to);
+		if (compare(order[mid - 1], order[mid]) <= 0) {
+			return; // already in order
+		}
+		System.arraycopy(order, from, buffer, from, to - from);
+		int left = from, right = mid, out = from;
+		while (left < mid && right < to) {
+			// take from the left run on ties to keep the sort stable
+			if (compare(buffer[left], buffer[right]) <= 0) {
+				order[out++] = buffer[left++];
+			} else {
+				order[out++] = buffer[right++];
+			}
+		}
+		while (left < mid) {
+			order[out++] = buffer[left++];
+		}
+		while (right < to) {
+			order[out++] = buffer[right++];
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private int compare(final int idx1, final int idx2) {
+		if (rowComparator != null) {
+			return rowComparator.compare(counters, idx1, idx2);
 		}
+		return comparator.compare((T) items[idx1], (T) items[idx2]);
 	}
 
 	/**
@@ -16,7 +16,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.jacoco.core.analysis.ICoverageNode;
 
@@ -34,11 +38,30 @@ public class Table {
 
 	private Comparator<ITableItem> defaultComparator;
 
+	private final CounterMatrix counters = new CounterMatrix();
+
+	/** Columns with equal comparators share the same index */
+	private final Map<Comparator<ITableItem>, SortIndex<ITableItem>> indexes = new HashMap<Comparator<ITableItem>, SortIndex<ITableItem>>();
+
+	private final boolean shareIndexes;
+
 	/**
 	 * Create a new table without any columns yet.
 	 */
 	public Table() {
+		this(true);
+	}
+
+	/**
+	 * Create a new table without any columns yet.
+	 *
+	 * @param shareIndexes
+	 *            whether columns with equal comparators share their sort
+	 *            index, only disabled to measure the sharing
+	 */
+	Table(final boolean shareIndexes) {
 		this.columns = new ArrayList<Table.Column>();
+		this.shareIndexes = shareIndexes;
 	}
 
 	/**
@@ -60,7 +83,11 @@ public class Table {
 	 */
 	public void add(final String headerTop, final String header, final String style,
 			final INewColumnRenderer renderer, final boolean defaultSorting) {
-		columns.add(new Column(columns.size(), headerTop, header, style, renderer, defaultSorting));
+		final SortIndex<ITableItem> index = shareIndexes
+				? indexes.computeIfAbsent(renderer.getComparator(),
+						SortIndex<ITableItem>::new)
+				: new SortIndex<ITableItem>(renderer.getComparator());
+		columns.add(new Column(columns.size(), headerTop, header, style, renderer, index, defaultSorting));
 		if (defaultSorting) {
 			if (defaultComparator != null) {
 				throw new IllegalStateException("Default sorting only allowed for one column.");
@@ -91,6 +118,7 @@ public class Table {
 			final Resources resources, final ReportOutputFolder base)
 			throws IOException {
 		final List<? extends ITableItem> sortedItems = sort(items);
+		counters.init(sortedItems, total.length);
 		final HTMLElement table = parent.table(Styles.COVERAGETABLE);
 		table.attr("id", "coveragetable");
 		header(table, sortedItems, total);
@@ -103,8 +131,10 @@ public class Table {
 			throws IOException 
 	{
 		// was hoping to create both header cells at the same time but that's not doing to work is it.
+		final Set<SortIndex<ITableItem>> sorted = Collections
+				.newSetFromMap(new IdentityHashMap<SortIndex<ITableItem>, Boolean>());
 		for (final Column c : columns) {
-			c.init(items, total);
+			c.init(items, counters, total, sorted);
 		}
 
 		final HTMLElement trTop = table.thead().tr();
@@ -135,7 +165,7 @@ public class Table {
 		for (final ITableItem item : items) { // hrm. this feels like an item is a row, which it isn't. maybe it is.
 			final HTMLElement tr = tbody.tr();
 			for (final Column c : columns) {
-				c.body(tr, idx, item, resources, base);
+				c.body(tr, idx, item, counters, resources, base);
 			}
 			idx++;
 		}
@@ -153,7 +183,20 @@ public class Table {
 	
 	public interface INewColumnRenderer /*extends IColumnRenderer*/ {
 		// colIndex now in constructor
-		boolean init(List<? extends ITableItem> items, ICoverageNode[] total);
+		/**
+		 * Initializes the column before any output method is called.
+		 *
+		 * @param items
+		 *            all items that will be displayed in the table
+		 * @param counters
+		 *            counters of the items, one row per item in the same
+		 *            order
+		 * @param total
+		 *            the summary of all coverage data items in the table
+		 * @return <code>true</code> if the column should be visible
+		 */
+		boolean init(List<? extends ITableItem> items, CounterMatrix counters,
+				ICoverageNode[] total);
 
 		
 		//void headerTop(final HTMLElement trTop);
@@ -184,6 +227,10 @@ public class Table {
 		 *            the parent table cell
 		 * @param item
 		 *            the item to display
+		 * @param counters
+		 *            counters of all items
+		 * @param row
+		 *            row of the item in the counters
 		 * @param resources
 		 *            static resources that might be referenced
 		 * @param base
@@ -191,8 +238,9 @@ public class Table {
 		 * @throws IOException
 		 *             in case of IO problems with the element output
 		 */
-		void item(HTMLElement td, ITableItem item, Resources resources,
-				ReportOutputFolder base) throws IOException;
+		void item(HTMLElement td, ITableItem item, CounterMatrix counters,
+				int row, Resources resources, ReportOutputFolder base)
+				throws IOException;
 
 		/**
 		 * Returns the comparator to sort this table column.
@@ -214,23 +262,26 @@ public class Table {
 		private boolean visible;
 
 		Column(final int idx, final String topHeader, final String header, final String style,
-				final INewColumnRenderer renderer, final boolean defaultSorting) {
+				final INewColumnRenderer renderer, final SortIndex<ITableItem> index,
+				final boolean defaultSorting) {
 			this.idprefix = (char) ('a' + idx);
 			this.topHeader = topHeader;
 			this.header = header;
 			this.renderer = renderer;
-			index = new SortIndex<ITableItem>(renderer.getComparator());
+			this.index = index;
 			this.style = style;
 			this.headerStyle = Styles.combine(
 				defaultSorting ? Styles.DOWN : null, Styles.SORTABLE,
 				style);
 		}
 
-		void init(final List<? extends ITableItem> items, final ICoverageNode[] total) throws IOException {
+		void init(final List<? extends ITableItem> items, final CounterMatrix counters,
+				final ICoverageNode[] total, final Set<SortIndex<ITableItem>> sorted)
+				throws IOException {
 			
-			visible = renderer.init(items, total);
-			if (visible) {
-				index.init(items);
+			visible = renderer.init(items, counters, total);
+			if (visible && sorted.add(index)) {
+				index.init(items, counters);
 			}	
 		}
 		void headerTop(final HTMLElement trTop) throws IOException {
@@ -259,13 +310,13 @@ public class Table {
 		}
 
 		void body(final HTMLElement tr, final int idx, final ITableItem item,
-				final Resources resources, final ReportOutputFolder base)
-				throws IOException {
+				final CounterMatrix counters, final Resources resources,
+				final ReportOutputFolder base) throws IOException {
 			if (visible) {
 				final HTMLElement td = tr.td(style);
 				td.attr("id",
 						idprefix + String.valueOf(index.getPosition(idx)));
-				renderer.item(td, item, resources, base);
+				renderer.item(td, item, counters, idx, resources, base);
 			}
 		}
 
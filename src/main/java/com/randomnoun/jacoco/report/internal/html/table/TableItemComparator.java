@@ -14,22 +14,136 @@ package com.randomnoun.jacoco.report.internal.html.table;
 
 import java.util.Comparator;
 
-import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
 
 /**
- * Adapter to sort table items based on their coverage nodes.
+ * Sorts table items based on the counters of their first coverage node. Items
+ * can be compared directly or as rows of a {@link CounterMatrix}, which gives
+ * the same order. Two comparators are equal if they have the same ordering on
+ * the same counter entity, so tables can sort the rows once for all columns
+ * with an equal comparator.
  */
 class TableItemComparator implements Comparator<ITableItem> {
 
-	private final Comparator<ICoverageNode> comparator;
+	/**
+	 * Supported orderings, which match the corresponding combinations of
+	 * {@link org.jacoco.core.analysis.CounterComparator}.
+	 */
+	enum Ordering {
 
-	TableItemComparator(final Comparator<ICoverageNode> comparator) {
-		this.comparator = comparator;
+		/** Descending by missed items, then descending by total items */
+		BAR {
+			@Override
+			int compare(final int missed1, final int covered1,
+					final int missed2, final int covered2) {
+				final int cmp = Integer.compare(missed2, missed1);
+				return cmp != 0 ? cmp
+						: Integer.compare(missed2 + covered2,
+								missed1 + covered1);
+			}
+		},
+
+		/** Descending by total items */
+		TOTAL {
+			@Override
+			int compare(final int missed1, final int covered1,
+					final int missed2, final int covered2) {
+				return Integer.compare(missed2 + covered2, missed1 + covered1);
+			}
+		},
+
+		/** Descending by missed items */
+		MISSED {
+			@Override
+			int compare(final int missed1, final int covered1,
+					final int missed2, final int covered2) {
+				return Integer.compare(missed2, missed1);
+			}
+		},
+
+		/** Descending by covered items */
+		COVERED {
+			@Override
+			int compare(final int missed1, final int covered1,
+					final int missed2, final int covered2) {
+				return Integer.compare(covered2, covered1);
+			}
+		},
+
+		/** Ascending by missed ratio, empty counters last */
+		MISSED_RATIO {
+			@Override
+			int compare(final int missed1, final int covered1,
+					final int missed2, final int covered2) {
+				return Double.compare((double) missed1 / (missed1 + covered1),
+						(double) missed2 / (missed2 + covered2));
+			}
+		};
+
+		abstract int compare(int missed1, int covered1, int missed2,
+				int covered2);
+
+	}
+
+	private final Ordering ordering;
+
+	private final CounterEntity entity;
+
+	/**
+	 * Creates a new comparator.
+	 *
+	 * @param ordering
+	 *            ordering of the counters
+	 * @param entity
+	 *            counter entity to sort on
+	 */
+	TableItemComparator(final Ordering ordering, final CounterEntity entity) {
+		this.ordering = ordering;
+		this.entity = entity;
 	}
 
 	// sort on 0th item
 	public int compare(final ITableItem i1, final ITableItem i2) {
-		return comparator.compare(i1.getNodes()[0], i2.getNodes()[0]);
+		final ICounter c1 = NodeCounters.getCounter(i1.getNodes(), 0, entity);
+		final ICounter c2 = NodeCounters.getCounter(i2.getNodes(), 0, entity);
+		return ordering.compare(c1.getMissedCount(), c1.getCoveredCount(),
+				c2.getMissedCount(), c2.getCoveredCount());
+	}
+
+	/**
+	 * Compares two rows of a table.
+	 *
+	 * @param counters
+	 *            counters of the table rows
+	 * @param row1
+	 *            index of the first row
+	 * @param row2
+	 *            index of the second row
+	 * @return comparison result as defined by {@link Comparator}
+	 */
+	int compare(final CounterMatrix counters, final int row1, final int row2) {
+		return ordering.compare(counters.getMissed(row1, 0, entity),
+				counters.getCovered(row1, 0, entity),
+				counters.getMissed(row2, 0, entity),
+				counters.getCovered(row2, 0, entity));
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof TableItemComparator)) {
+			return false;
+		}
+		final TableItemComparator other = (TableItemComparator) obj;
+		return ordering == other.ordering && entity == other.entity;
+	}
+
+	@Override
+	public int hashCode() {
+		return ordering.hashCode() * 31 + entity.hashCode();
 	}
 
 }
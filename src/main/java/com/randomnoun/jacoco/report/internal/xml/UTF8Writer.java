@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.xml;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Buffered writer which encodes characters as UTF-8. XML documents are written
+ * in many small pieces, often single characters, so this writer encodes
+ * directly into a reusable byte buffer instead of going through a charset
+ * encoder and only passes large chunks to the underlying stream. The output is
+ * the same as with an {@link java.io.OutputStreamWriter}, unpaired surrogates
+ * are replaced by <code>'?'</code>.
+ *
+ * Instances are not thread safe.
+ */
+final class UTF8Writer extends Writer {
+
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+	/** Maximum number of bytes written for a single character */
+	private static final int MAX_BYTES_PER_CHAR = 4;
+
+	private static final byte REPLACEMENT = '?';
+
+	private final OutputStream out;
+
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+
+	private int pos;
+
+	/** High surrogate waiting for the next character, or 0 */
+	private char highSurrogate;
+
+	private boolean closed;
+
+	/**
+	 * Creates a new writer.
+	 *
+	 * @param out
+	 *            stream the encoded bytes are written to
+	 */
+	UTF8Writer(final OutputStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * Checks whether the given encoding is handled by this writer.
+	 *
+	 * @param encoding
+	 *            name of the encoding
+	 * @return <code>true</code> for UTF-8
+	 */
+	static boolean supports(final String encoding) {
+		return "UTF-8".equalsIgnoreCase(encoding)
+				|| "UTF8".equalsIgnoreCase(encoding);
+	}
+
+	@Override
+	public void write(final int c) throws IOException {
+		ensureOpen();
+		if (pos > BUFFER_SIZE - MAX_BYTES_PER_CHAR) {
+			flushBuffer();
+		}
+		encode((char) c);
+	}
+
+	@Override
+	public void write(final String str, final int off, final int len)
+			throws IOException {
+		ensureOpen();
+		final int end = off + len;
+		int i = off;
+		while (i < end) {
+			if (pos > BUFFER_SIZE - MAX_BYTES_PER_CHAR) {
+				flushBuffer();
+			}
+			// plain ASCII is copied without any further checks
+			final int limit = Math.min(end, i + BUFFER_SIZE - pos);
+			if (highSurrogate == 0) {
+				char c;
+				while (i < limit && (c = str.charAt(i)) < 0x80) {
+					buffer[pos++] = (byte) c;
+					i++;
+				}
+			}
+			final int charLimit = Math.min(end,
+					i + (BUFFER_SIZE - pos) / MAX_BYTES_PER_CHAR);
+			while (i < charLimit) {
+				encode(str.charAt(i++));
+			}
+		}
+	}
+
+	@Override
+	public void write(final char[] cbuf, final int off, final int len)
+			throws IOException {
+		ensureOpen();
+		final int end = off + len;
+		int i = off;
+		while (i < end) {
+			if (pos > BUFFER_SIZE - MAX_BYTES_PER_CHAR) {
+				flushBuffer();
+			}
+			final int limit = Math.min(end, i + BUFFER_SIZE - pos);
+			if (highSurrogate == 0) {
+				char c;
+				while (i < limit && (c = cbuf[i]) < 0x80) {
+					buffer[pos++] = (byte) c;
+					i++;
+				}
+			}
+			final int charLimit = Math.min(end,
+					i + (BUFFER_SIZE - pos) / MAX_BYTES_PER_CHAR);
+			while (i < charLimit) {
+				encode(cbuf[i++]);
+			}
+		}
+	}
+
+	/**
+	 * Encodes a single character. The buffer must have space for at least
+	 * {@link #MAX_BYTES_PER_CHAR} bytes.
+	 */
+	private void encode(final char c) {
+		if (highSurrogate != 0) {
+			if (Character.isLowSurrogate(c)) {
+				final int cp = Character.toCodePoint(highSurrogate, c);
+				highSurrogate = 0;
+				buffer[pos++] = (byte) (0xF0 | (cp >> 18));
+				buffer[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+				buffer[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+				buffer[pos++] = (byte) (0x80 | (cp & 0x3F));
+				return;
+			}
+			highSurrogate = 0;
+			buffer[pos++] = REPLACEMENT;
+		}
+		if (c < 0x80) {
+			buffer[pos++] = (byte) c;
+		} else if (c < 0x800) {
+			buffer[pos++] = (byte) (0xC0 | (c >> 6));
+			buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+		} else if (Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+		} else if (Character.isLowSurrogate(c)) {
+			buffer[pos++] = REPLACEMENT;
+		} else {
+			buffer[pos++] = (byte) (0xE0 | (c >> 12));
+			buffer[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+			buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		if (pos > 0) {
+			out.write(buffer, 0, pos);
+			pos = 0;
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		flushBuffer();
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			if (highSurrogate != 0) {
+				highSurrogate = 0;
+				buffer[pos++] = REPLACEMENT;
+			}
+			flushBuffer();
+		} finally {
+			closed = true;
+			out.close();
+		}
+	}
+
+}
@@ -14,9 +14,11 @@ package com.randomnoun.jacoco.report.internal.xml;
 
 import static java.lang.String.format;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
 import java.io.Writer;
 
 /**
@@ -36,6 +38,16 @@ public class XMLElement {
 	/** DOCTYPE declaration template */
 	private static final String DOCTYPE = "<!DOCTYPE %s PUBLIC \"%s\" \"%s\">";
 
+	/** Characters which are replaced by entities, indexed up to '>' */
+	private static final boolean[] MARKUP = new boolean['>' + 1];
+
+	static {
+		MARKUP['<'] = true;
+		MARKUP['>'] = true;
+		MARKUP['"'] = true;
+		MARKUP['&'] = true;
+	}
+
 	/** Writer for content output */
 	protected final Writer writer;
 
@@ -81,7 +93,7 @@ public class XMLElement {
 			final String system, final boolean standalone,
 			final String encoding, final OutputStream output)
 			throws IOException {
-		this(new OutputStreamWriter(output, encoding), name, true);
+		this(createWriter(output, encoding), name, true);
 		if (standalone) {
 			writer.write(format(HEADER_STANDALONE, encoding));
 		} else {
@@ -94,6 +106,14 @@ public class XMLElement {
 		writer.write(name);
 	}
 
+	private static Writer createWriter(final OutputStream output,
+			final String encoding) throws UnsupportedEncodingException {
+		if (UTF8Writer.supports(encoding)) {
+			return new UTF8Writer(output);
+		}
+		return new BufferedWriter(new OutputStreamWriter(output, encoding));
+	}
+
 	/**
 	 * Creates a new child element within a XML document. May only be called
 	 * before the parent element has been closed.
@@ -133,27 +153,50 @@ public class XMLElement {
 	}
 
 	private void quote(final String text) throws IOException {
+		final int len = text.length();
+		int start = 0;
+		for (int i = 0; i < len; i++) {
+			final char c = text.charAt(i);
+			if (c <= '>' && MARKUP[c]) {
+				// write the run of characters without markup at once
+				if (i > start) {
+					writer.write(text, start, i - start);
+				}
+				writer.write(entity(c));
+				start = i + 1;
+			}
+		}
+		if (start == 0) {
+			writer.write(text);
+		} else if (start < len) {
+			writer.write(text, start, len - start);
+		}
+	}
+
+	private static String entity(final char c) {
+		switch (c) {
+		case '<':
+			return "&lt;";
+		case '>':
+			return "&gt;";
+		case '"':
+			return "&quot;";
+		case '&':
+			return "&amp;";
+		default:
+			return null;
+		}
+	}
+
+	private static boolean isPlain(final String text) {
 		final int len = text.length();
 		for (int i = 0; i < len; i++) {
 			final char c = text.charAt(i);
-			switch (c) {
-			case '<':
-				writer.write("&lt;");
-				break;
-			case '>':
-				writer.write("&gt;");
-				break;
-			case '"':
-				writer.write("&quot;");
-				break;
-			case '&':
-				writer.write("&amp;");
-				break;
-			default:
-				writer.write(c);
-				break;
+			if (c <= '>' && MARKUP[c]) {
+				return false;
 			}
 		}
+		return true;
 	}
 
 	/**
@@ -187,6 +230,71 @@ public class XMLElement {
 		writer.write('"');
 	}
 
+	/**
+	 * Adds an attribute to this element whose value is written as is. This is
+	 * meant for constant values like style names that are known to contain no
+	 * characters which need quoting. May only be called before an child
+	 * element is added or this element has been closed. If the value is
+	 * <code>null</code> the attribute will not be added.
+	 *
+	 * @param name
+	 *            attribute name
+	 * @param value
+	 *            attribute value without any markup characters or
+	 *            <code>null</code>
+	 * @throws IOException
+	 *             in case of problems with the underlying output or if the
+	 *             element is already closed.
+	 */
+	protected final void plainAttr(final String name, final String value)
+			throws IOException {
+		if (value == null) {
+			return;
+		}
+		assert isPlain(value) : value;
+		if (closed || openTagDone) {
+			throw new IOException(
+					format("Element %s already closed.", this.name));
+		}
+		writer.write(' ');
+		writer.write(name);
+		writer.write('=');
+		writer.write('"');
+		writer.write(value);
+		writer.write('"');
+	}
+
+	/**
+	 * Adds an attribute to this element whose value is written as is from the
+	 * first characters of the given buffer, so the caller can reuse the buffer
+	 * for generated values. May only be called before an child element is
+	 * added or this element has been closed.
+	 *
+	 * @param name
+	 *            attribute name
+	 * @param value
+	 *            buffer with the attribute value without any markup
+	 *            characters
+	 * @param length
+	 *            length of the attribute value
+	 * @throws IOException
+	 *             in case of problems with the underlying output or if the
+	 *             element is already closed.
+	 */
+	protected final void plainAttr(final String name, final char[] value,
+			final int length) throws IOException {
+		if (closed || openTagDone) {
+			throw new IOException(
+					format("Element %s already closed.", this.name));
+		}
+		writer.write(' ');
+		writer.write(name);
+		writer.write('=');
+		writer.write('"');
+		writer.write(value, 0, length);
+		writer.write('"');
+	}
+
 	/**
 	 * Adds an attribute to this element. May only be called before an child
 	 * element is added or this element has been closed. The attribute value is
@@ -244,6 +352,68 @@ public class XMLElement {
 		quote(text);
 	}
 
+	/**
+	 * Adds a child element which only contains the given text. Unlike
+	 * {@link #element(String)} no element instance is created, which keeps
+	 * documents with many small elements cheap. The value of the first
+	 * attribute is written as is, the value of the second attribute and the
+	 * text are quoted. Attributes with a <code>null</code> value are not
+	 * added.
+	 *
+	 * @param name
+	 *            name of the child element
+	 * @param plainName
+	 *            name of the attribute written as is
+	 * @param plainValue
+	 *            value without any markup characters or <code>null</code>
+	 * @param attrName
+	 *            name of the quoted attribute
+	 * @param attrValue
+	 *            value of the quoted attribute or <code>null</code>
+	 * @param text
+	 *            text of the child element
+	 * @throws IOException
+	 *             in case of problems with the underlying output or if the
+	 *             element is already closed.
+	 */
+	protected final void leaf(final String name, final String plainName,
+			final String plainValue, final String attrName,
+			final String attrValue, final String text) throws IOException {
+		if (closed) {
+			throw new IOException(format("Element %s already closed.", name));
+		}
+		finishOpenTag();
+		if (lastchild != null) {
+			lastchild.close();
+			lastchild = null;
+		}
+		writer.write('<');
+		writer.write(name);
+		if (plainValue != null) {
+			assert isPlain(plainValue) : plainValue;
+			writer.write(' ');
+			writer.write(plainName);
+			writer.write('=');
+			writer.write('"');
+			writer.write(plainValue);
+			writer.write('"');
+		}
+		if (attrValue != null) {
+			writer.write(' ');
+			writer.write(attrName);
+			writer.write('=');
+			writer.write('"');
+			quote(attrValue);
+			writer.write('"');
+		}
+		writer.write('>');
+		quote(text);
+		writer.write('<');
+		writer.write('/');
+		writer.write(name);
+		writer.write('>');
+	}
+
 	/**
 	 * Creates a new child element for this element. Might be overridden in
 	 * subclasses to return a instance of the subclass.
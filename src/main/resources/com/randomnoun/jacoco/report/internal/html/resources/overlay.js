@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+
+(function () {
+
+  /** Line styles indexed by counter status */
+  var LINE_STYLES = ['', 'nc', 'fc', 'pc'];
+
+  /** Coverage of every run, once the overlay script is loaded */
+  var runs = null;
+
+  /** Localized branch tooltips by "missed/total", from the overlay script */
+  var texts = null;
+
+  /** Number of lines covered by the overlay */
+  var lineCount = 0;
+
+  /** Select element waiting for the overlay script */
+  var pending = null;
+
+  /** Original state of the source lines */
+  var saved = null;
+
+  /**
+   * Shows the coverage of the run selected in the given element. The overlay
+   * script is loaded on first use.
+   *
+   * @param element
+   *          select element with the run index as value and the link to the
+   *          overlay script of this page in its data-overlay attribute
+   */
+  function select(element) {
+    if (runs) {
+      show(element);
+      return;
+    }
+    if (!pending) {
+      var script = document.createElement('script');
+      script.type = 'text/javascript';
+      script.src = element.getAttribute('data-overlay');
+      document.getElementsByTagName('head')[0].appendChild(script);
+    }
+    pending = element;
+  }
+
+  /**
+   * Called by the overlay script with the run-length encoded coverage of
+   * every run and the branch tooltips.
+   */
+  function load(data, branchTexts) {
+    runs = data;
+    texts = branchTexts;
+    for (var r = 0; r < runs.length; r++) {
+      var lines = 0;
+      var run = runs[r] || [];
+      for (var t = 0; t < run.length; t += 4) {
+        lines += run[t];
+      }
+      lineCount = Math.max(lineCount, lines);
+    }
+    if (pending) {
+      show(pending);
+      pending = null;
+    }
+  }
+
+  function show(element) {
+    restore();
+    if (element.value === '') {
+      return;
+    }
+    var name = element.options[element.selectedIndex].text;
+    apply(runs[parseInt(element.value, 10)] || [], name);
+  }
+
+  /**
+   * Replaces the line styles and branch markers with the ones of a single run.
+   */
+  function apply(run, name) {
+    var save = !saved;
+    if (save) {
+      saved = [];
+    }
+    var t = 0, left = 0, status = 0, missed = 0, total = 0;
+    for (var nr = 1; nr <= lineCount; nr++) {
+      if (left == 0) {
+        if (t < run.length) {
+          left = run[t];
+          status = run[t + 1];
+          missed = run[t + 2];
+          total = run[t + 3];
+          t += 4;
+        } else {
+          left = lineCount;
+          status = missed = total = 0;
+        }
+      }
+      left--;
+      var line = document.getElementById('L' + nr);
+      if (!line) {
+        continue;
+      }
+      var gutter = line.previousElementSibling;
+      if (save) {
+        saved.push([line, line.className, gutter, gutter.className, gutter.title]);
+      }
+      var style = LINE_STYLES[status];
+      line.className = style;
+      gutter.className = (style ? style + ' ' : '') + getBranchStyle(missed, total);
+      gutter.title = total == 0 ? '' : name + ': ' + texts[missed + '/' + total];
+    }
+  }
+
+  /**
+   * Restores the combined coverage of all runs.
+   */
+  function restore() {
+    if (!saved) {
+      return;
+    }
+    for (var i = 0; i < saved.length; i++) {
+      var s = saved[i];
+      s[0].className = s[1];
+      s[2].className = s[3];
+      s[2].title = s[4];
+    }
+  }
+
+  function getBranchStyle(missed, total) {
+    if (total == 0) {
+      return 'bskip';
+    }
+    if (missed == total) {
+      return 'bnc';
+    }
+    return missed == 0 ? 'bfc' : 'bpc';
+  }
+
+  window['jacocoOverlay'] = {
+    'select' : select,
+    'load' : load
+  };
+
+})();
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report;
+
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.internal.analysis.ClassCoverageImpl;
+import org.jacoco.core.internal.analysis.CounterImpl;
+import org.jacoco.core.internal.analysis.MethodCoverageImpl;
+import org.jacoco.report.ISourceFileLocator;
+
+/**
+ * Creates synthetic coverage data for tests. Every class has one method per
+ * five lines, the coverage of the lines is derived from a seed, so bundles
+ * with different seeds differ in coverage.
+ */
+public final class CoverageFixture {
+
+	/** Number of source lines of every class */
+	public static final int LINES = 20;
+
+	private CoverageFixture() {
+	}
+
+	/**
+	 * Creates a bundle with the given classes.
+	 *
+	 * @param name
+	 *            name of the bundle
+	 * @param seed
+	 *            seed for the coverage of the lines
+	 * @param classNames
+	 *            VM names of the classes
+	 * @return bundle
+	 */
+	public static IBundleCoverage newBundle(final String name, final int seed,
+			final String... classNames) {
+		final CoverageBuilder builder = new CoverageBuilder();
+		for (final String className : classNames) {
+			builder.visitCoverage(newClass(className, seed));
+		}
+		return builder.getBundle(name);
+	}
+
+	/**
+	 * Creates a class with coverage derived from the given seed.
+	 *
+	 * @param vmname
+	 *            VM name of the class
+	 * @param seed
+	 *            seed for the coverage of the lines
+	 * @return class coverage
+	 */
+	public static IClassCoverage newClass(final String vmname,
+			final int seed) {
+		final ClassCoverageImpl c = new ClassCoverageImpl(vmname,
+				vmname.hashCode(), false);
+		final int slash = vmname.lastIndexOf('/');
+		String simpleName = vmname.substring(slash + 1);
+		final int dollar = simpleName.indexOf('$');
+		if (dollar != -1) {
+			simpleName = simpleName.substring(0, dollar);
+		}
+		c.setSourceFileName(simpleName + ".java");
+		MethodCoverageImpl m = null;
+		for (int line = 1; line <= LINES; line++) {
+			if ((line - 1) % 5 == 0) {
+				m = new MethodCoverageImpl("m" + line, "()V", null);
+			}
+			final int h = Math.abs((vmname.hashCode() + line) * 31 + seed);
+			final int instructions = 1 + h % 4;
+			final int covered = h % 5 == 0 ? 0 : h % (instructions + 1);
+			final CounterImpl branches = line % 4 == 0
+					? CounterImpl.getInstance(2 - h % 3, h % 3)
+					: CounterImpl.COUNTER_0_0;
+			m.increment(CounterImpl.getInstance(instructions - covered,
+					covered), branches, line);
+			if (line % 5 == 0) {
+				// class counters are summed up when the method is added
+				m.incrementMethodCounter();
+				c.addMethod(m);
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * Creates a locator which provides a generated source file with
+	 * {@link #LINES} lines for every source file name.
+	 *
+	 * @return source locator
+	 */
+	public static ISourceFileLocator newLocator() {
+		return new ISourceFileLocator() {
+			public Reader getSourceFile(final String packageName,
+					final String fileName) {
+				final StringBuilder source = new StringBuilder();
+				for (int line = 1; line <= LINES; line++) {
+					source.append("\tint line").append(line).append(" = ")
+							.append(line).append("; // ").append(fileName)
+							.append(" <&>\n");
+				}
+				return new StringReader(source.toString());
+			}
+
+			public int getTabWidth() {
+				return 4;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory report output for tests, which records the files written since
+ * the last call of {@link #resetWritten()}.
+ */
+public class MemoryMultiReportOutput implements IReadableMultiReportOutput {
+
+	private final Map<String, byte[]> files = new ConcurrentHashMap<String, byte[]>();
+
+	private final Set<String> written = ConcurrentHashMap.newKeySet();
+
+	private boolean closed;
+
+	public OutputStream createFile(final String path) throws IOException {
+		return new ByteArrayOutputStream() {
+			@Override
+			public void close() throws IOException {
+				files.put(path, toByteArray());
+				written.add(path);
+			}
+		};
+	}
+
+	public InputStream openFile(final String path) throws IOException {
+		final byte[] content = files.get(path);
+		return content == null ? null : new ByteArrayInputStream(content);
+	}
+
+	public void close() throws IOException {
+		closed = true;
+	}
+
+	/**
+	 * @return <code>true</code> if the output has been closed
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Removes a file, as if it was deleted from the report.
+	 *
+	 * @param path
+	 *            path of the file
+	 */
+	public void delete(final String path) {
+		files.remove(path);
+	}
+
+	/**
+	 * @return content of all files by path, in path order
+	 */
+	public Map<String, String> getFiles() {
+		final Map<String, String> result = new TreeMap<String, String>();
+		for (final Map.Entry<String, byte[]> e : files.entrySet()) {
+			result.put(e.getKey(),
+					new String(e.getValue(), StandardCharsets.UTF_8));
+		}
+		return result;
+	}
+
+	/**
+	 * @return paths of all files written since the last reset
+	 */
+	public Set<String> getWritten() {
+		return new TreeSet<String>(written);
+	}
+
+	/**
+	 * Forgets the files written so far, see {@link #getWritten()}.
+	 */
+	public void resetWritten() {
+		written.clear();
+	}
+
+}
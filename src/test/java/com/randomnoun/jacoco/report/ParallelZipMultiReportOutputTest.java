@@ -0,0 +1,265 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.SessionInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.randomnoun.jacoco.report.html.HTMLFormatter;
+
+/**
+ * Unit tests for {@link ParallelZipMultiReportOutput}.
+ */
+public class ParallelZipMultiReportOutputTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private final ByteArrayOutputStream archive = new ByteArrayOutputStream();
+
+	@Test
+	public void should_write_entries_ordered_by_path() throws Exception {
+		final ParallelZipMultiReportOutput output = new ParallelZipMultiReportOutput(
+				archive, 4);
+		final List<OutputStream> files = new ArrayList<OutputStream>();
+		for (int i = 0; i < 50; i++) {
+			files.add(output.createFile(name(49 - i)));
+		}
+		// close and write in reverse order on several threads
+		final ExecutorService threads = Executors.newFixedThreadPool(4);
+		final List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int i = files.size() - 1; i >= 0; i--) {
+			final OutputStream file = files.get(i);
+			final String content = content(i);
+			futures.add(threads.submit(() -> {
+				file.write(content.getBytes(StandardCharsets.UTF_8));
+				file.close();
+				return null;
+			}));
+		}
+		for (final Future<?> future : futures) {
+			future.get();
+		}
+		threads.shutdown();
+		output.close();
+
+		final ZipInputStream in = new ZipInputStream(
+				new ByteArrayInputStream(archive.toByteArray()));
+		for (int i = 0; i < 50; i++) {
+			final ZipEntry entry = in.getNextEntry();
+			assertEquals(name(i), entry.getName());
+			assertEquals(content(49 - i), read(in));
+		}
+		assertNull(in.getNextEntry());
+	}
+
+	@Test(timeout = 10000)
+	public void should_allow_nested_files()
+			throws IOException {
+		final ParallelZipMultiReportOutput output = new ParallelZipMultiReportOutput(
+				archive, 1);
+		final OutputStream page = output.createFile("page.html");
+		for (int i = 0; i < 20; i++) {
+			final OutputStream file = output.createFile(i + ".js");
+			file.write(i);
+			file.close();
+		}
+		page.close();
+		output.close();
+		assertEquals(21, entries().size());
+	}
+
+	@Test
+	public void should_write_zip64_archive() throws IOException {
+		final File file = tmp.newFile("report.zip");
+		final int count = 70000;
+		final ParallelZipMultiReportOutput output = new ParallelZipMultiReportOutput(
+				new FileOutputStream(file), 2);
+		for (int i = 0; i < count; i++) {
+			final OutputStream out = output
+					.createFile(String.format("p/%05d.html", Integer.valueOf(i)));
+			out.write(content(i).getBytes(StandardCharsets.UTF_8));
+			out.close();
+		}
+		output.close();
+
+		try (ZipFile zip = new ZipFile(file)) {
+			assertEquals(count, zip.size());
+			final Enumeration<? extends ZipEntry> entries = zip.entries();
+			for (int i = 0; i < count; i++) {
+				final ZipEntry entry = entries.nextElement();
+				assertEquals(String.format("p/%05d.html", Integer.valueOf(i)),
+						entry.getName());
+				if (i % 1000 == 0 || i == count - 1) {
+					try (InputStream in = zip.getInputStream(entry)) {
+						assertEquals(content(i), read(in));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void should_use_default_time() throws IOException {
+		final ParallelZipMultiReportOutput output = new ParallelZipMultiReportOutput(
+				archive, 1);
+		output.createFile("a.html").close();
+		output.close();
+		assertEquals(LocalDateTime.of(1980, 1, 1, 0, 0),
+				entries().get(0).getTimeLocal());
+	}
+
+	@Test
+	public void should_use_given_time() throws IOException {
+		final ParallelZipMultiReportOutput output = new ParallelZipMultiReportOutput(
+				archive, 1, 1700000000000L);
+		output.createFile("a.html").close();
+		output.close();
+		// 2023-11-14 22:13:20 UTC, DOS times have two second resolution
+		assertEquals(LocalDateTime.of(2023, 11, 14, 22, 13, 20),
+				entries().get(0).getTimeLocal());
+	}
+
+	@Test
+	public void write_should_fail_after_close() throws IOException {
+		final ParallelZipMultiReportOutput output = new ParallelZipMultiReportOutput(
+				archive, 1);
+		final OutputStream out = output.createFile("a.html");
+		out.write(1);
+		out.close();
+		try {
+			out.write(2);
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertEquals("Stream closed: a.html", e.getMessage());
+		}
+		output.close();
+	}
+
+	@Test(expected = IOException.class)
+	public void createFile_should_fail_after_close() throws IOException {
+		final ParallelZipMultiReportOutput output = new ParallelZipMultiReportOutput(
+				archive, 1);
+		output.close();
+		output.createFile("a.html");
+	}
+
+	@Test(expected = IOException.class)
+	public void createFile_should_fail_for_duplicate_path()
+			throws IOException {
+		final ParallelZipMultiReportOutput output = new ParallelZipMultiReportOutput(
+				archive, 1);
+		output.createFile("a.html").close();
+		output.createFile("a.html");
+	}
+
+	@Test
+	public void close_should_fail_for_open_file() throws IOException {
+		final ParallelZipMultiReportOutput output = new ParallelZipMultiReportOutput(
+				archive, 1);
+		output.createFile("a.html");
+		try {
+			output.close();
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertEquals("1 files not closed", e.getMessage());
+		}
+	}
+
+	@Test
+	public void parallel_report_should_give_same_archive() throws IOException {
+		final byte[] expected = renderReport(1);
+		assertEquals(expected.length, renderReport(1).length);
+		for (int i = 0; i < 5; i++) {
+			assertArrayEquals(expected, renderReport(4));
+		}
+	}
+
+	private static byte[] renderReport(final int parallelism)
+			throws IOException {
+		final IBundleCoverage[] bundles = new IBundleCoverage[] {
+				CoverageFixture.newBundle("run0", 0, "a/A", "a/B", "b/A",
+						"b/B", "c/A", "c/B", "d/A", "d/B"),
+				CoverageFixture.newBundle("run1", 1, "a/A", "b/B", "c/A",
+						"d/B", "e/A") };
+		final HTMLFormatter formatter = new HTMLFormatter();
+		formatter.setParallelism(parallelism);
+		formatter.setCoverageOverlayRuns(2);
+		final ByteArrayOutputStream archive = new ByteArrayOutputStream();
+		final HTMLFormatter.INewReportVisitor visitor = formatter
+				.createVisitor(
+						new ParallelZipMultiReportOutput(archive, parallelism));
+		visitor.visitInfo(Collections.<SessionInfo> emptyList(),
+				Collections.<ExecutionData> emptyList());
+		visitor.visitBundles(bundles, CoverageFixture.newLocator());
+		visitor.visitEnd();
+		return archive.toByteArray();
+	}
+
+	private List<ZipEntry> entries() throws IOException {
+		final List<ZipEntry> entries = new ArrayList<ZipEntry>();
+		final ZipInputStream in = new ZipInputStream(
+				new ByteArrayInputStream(archive.toByteArray()));
+		ZipEntry entry;
+		while ((entry = in.getNextEntry()) != null) {
+			entries.add(entry);
+		}
+		return entries;
+	}
+
+	private static String name(final int i) {
+		return String.format("f%02d.html", Integer.valueOf(i));
+	}
+
+	private static String content(final int i) {
+		final StringBuilder sb = new StringBuilder();
+		for (int j = 0; j < i % 100; j++) {
+			sb.append("line ").append(i).append(" ").append(j).append('\n');
+		}
+		return sb.toString();
+	}
+
+	private static String read(final InputStream in) throws IOException {
+		return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+	}
+
+}
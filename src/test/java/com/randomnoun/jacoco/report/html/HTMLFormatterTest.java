@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.html;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.SessionInfo;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.randomnoun.jacoco.report.CoverageFixture;
+import com.randomnoun.jacoco.report.MemoryMultiReportOutput;
+
+/**
+ * Unit tests for {@link HTMLFormatter}.
+ */
+public class HTMLFormatterTest {
+
+	private IBundleCoverage[] bundles;
+
+	@Before
+	public void setup() {
+		// class and source names which only differ in case get suffixes
+		bundles = new IBundleCoverage[] {
+				CoverageFixture.newBundle("run0", 0, "p/Foo", "p/foo",
+						"p/FOO$1", "p/Bar", "q/Foo", "Q/Foo"),
+				CoverageFixture.newBundle("run1", 1, "p/foo", "p/FOO$1",
+						"p/Bar", "q/Foo", "r/Baz") };
+	}
+
+	@Test
+	public void parallel_rendering_should_create_same_report_as_sequential()
+			throws IOException {
+		final Map<String, String> expected = render(new HTMLFormatter())
+				.getFiles();
+		assertTrue(expected.containsKey("p/Foo.html"));
+		assertTrue(expected.containsKey("p/foo.html~1"));
+		assertTrue(expected.containsKey("p/Foo.java.html~1"));
+		assertTrue(expected.containsKey("q~1/Foo.html"));
+
+		for (int i = 0; i < 5; i++) {
+			final HTMLFormatter formatter = new HTMLFormatter();
+			formatter.setParallelism(4);
+			formatter.setMaxOpenSourceFiles(2);
+			assertEquals(expected, render(formatter).getFiles());
+		}
+	}
+
+	@Test
+	public void coverage_overlay_should_contain_link_and_localized_tooltips()
+			throws IOException {
+		final HTMLFormatter formatter = new HTMLFormatter();
+		formatter.setCoverageOverlayRuns(2);
+		// digits of this locale are not ASCII
+		formatter.setLocale(Locale.forLanguageTag("ar-EG"));
+		final Map<String, String> files = render(formatter).getFiles();
+
+		final String page = files.get("p/Bar.java.html");
+		assertTrue(page, page.contains("<select onchange=\"jacocoOverlay"
+				+ ".select(this)\" data-overlay=\"Bar.java.js\">"));
+		final String script = files.get("p/Bar.java.js");
+		assertTrue(script, script.contains(
+				"\"1/2\":\"\\u0661 of \\u0662 branches missed.\""));
+		for (int i = 0; i < script.length(); i++) {
+			assertTrue(script, script.charAt(i) < 0x80);
+		}
+	}
+
+	@Test
+	public void incremental_report_should_skip_unchanged_pages()
+			throws IOException {
+		final MemoryMultiReportOutput output = new MemoryMultiReportOutput();
+		render(newIncrementalFormatter(), output);
+		final Map<String, String> expected = output.getFiles();
+		assertTrue(output.getWritten().contains("p/Bar.html"));
+
+		output.resetWritten();
+		render(newIncrementalFormatter(), output);
+		assertEquals(expected, output.getFiles());
+		assertEquals("[jacoco-manifest.txt, jacoco-sessions.html]",
+				output.getWritten().toString());
+	}
+
+	@Test
+	public void incremental_report_should_render_changed_pages()
+			throws IOException {
+		final MemoryMultiReportOutput output = new MemoryMultiReportOutput();
+		render(newIncrementalFormatter(), output);
+		bundles[1] = CoverageFixture.newBundle("run1", 1, "p/foo", "p/FOO$1",
+				"p/Bar", "q/Foo", "r/Baz", "r/Qux");
+
+		output.resetWritten();
+		render(newIncrementalFormatter(), output);
+		assertEquals(render(new HTMLFormatter()).getFiles().keySet(),
+				withoutManifest(output.getFiles()).keySet());
+		assertTrue(output.getWritten().contains("r/Qux.html"));
+		assertTrue(output.getWritten().contains("r/index.html"));
+		assertTrue(output.getWritten().contains("index.html"));
+		assertFalse(output.getWritten().contains("p/index.html"));
+		assertFalse(output.getWritten().contains("r/Baz.html"));
+	}
+
+	@Test
+	public void incremental_report_should_render_pages_with_missing_files()
+			throws IOException {
+		final MemoryMultiReportOutput output = new MemoryMultiReportOutput();
+		final HTMLFormatter formatter = newIncrementalFormatter();
+		formatter.setCoverageOverlayRuns(2);
+		render(formatter, output);
+		output.delete("p/Bar.java.js");
+		output.delete("q~1/Foo.html");
+
+		output.resetWritten();
+		final HTMLFormatter again = newIncrementalFormatter();
+		again.setCoverageOverlayRuns(2);
+		render(again, output);
+		assertTrue(output.getWritten().contains("p/Bar.java.js"));
+		assertTrue(output.getWritten().contains("p/Bar.java.html"));
+		assertTrue(output.getWritten().contains("q~1/Foo.html"));
+		assertFalse(output.getWritten().contains("p/Bar.html"));
+	}
+
+	@Test
+	public void incremental_report_should_render_all_pages_for_new_settings()
+			throws IOException {
+		final MemoryMultiReportOutput output = new MemoryMultiReportOutput();
+		render(newIncrementalFormatter(), output);
+
+		output.resetWritten();
+		final HTMLFormatter formatter = newIncrementalFormatter();
+		formatter.setFooterText("footer");
+		render(formatter, output);
+		assertTrue(output.getWritten().contains("p/Bar.html"));
+		assertTrue(output.getWritten().contains("p/Bar.java.html"));
+	}
+
+	@Test
+	public void shared_resources_should_link_relative_to_each_page()
+			throws IOException {
+		final HTMLFormatter formatter = new HTMLFormatter();
+		formatter.setSharedResources("../shared");
+		final Map<String, String> files = render(formatter).getFiles();
+		assertFalse(files.containsKey("jacoco-resources/report.css"));
+		assertTrue(files.get("index.html")
+				.contains("href=\"../shared/report.css\""));
+		assertTrue(files.get("p/index.html")
+				.contains("href=\"../../shared/report.css\""));
+	}
+
+	@Test
+	public void setSharedResources_should_reject_absolute_links() {
+		final HTMLFormatter formatter = new HTMLFormatter();
+		for (final String link : new String[] { "/shared", "\\\\host\\shared",
+				"http://example.com/shared", "//example.com/shared",
+				"C:\\shared", "file:shared" }) {
+			try {
+				formatter.setSharedResources(link);
+				fail("IllegalArgumentException expected for " + link);
+			} catch (final IllegalArgumentException e) {
+				assertEquals("Shared resources must be a relative link: "
+						+ link, e.getMessage());
+			}
+		}
+		formatter.setSharedResources("shared");
+		formatter.setSharedResources("../a:b/shared");
+		formatter.setSharedResources(null);
+	}
+
+	private static HTMLFormatter newIncrementalFormatter() {
+		final HTMLFormatter formatter = new HTMLFormatter();
+		formatter.setIncremental(true);
+		formatter.setSkipUnchangedResources(true);
+		return formatter;
+	}
+
+	private static Map<String, String> withoutManifest(
+			final Map<String, String> files) {
+		files.remove("jacoco-manifest.txt");
+		return files;
+	}
+
+	private MemoryMultiReportOutput render(final HTMLFormatter formatter)
+			throws IOException {
+		final MemoryMultiReportOutput output = new MemoryMultiReportOutput();
+		render(formatter, output);
+		return output;
+	}
+
+	private void render(final HTMLFormatter formatter,
+			final MemoryMultiReportOutput output) throws IOException {
+		final HTMLFormatter.INewReportVisitor visitor = formatter
+				.createVisitor(output);
+		visitor.visitInfo(Collections.<SessionInfo> emptyList(),
+				Collections.<ExecutionData> emptyList());
+		visitor.visitBundles(bundles, CoverageFixture.newLocator());
+		visitor.visitEnd();
+	}
+
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link NormalizedFileNames}.
+ */
+public class NormalizedFileNamesTest {
+
+	private NormalizedFileNames nfn;
+
+	@Before
+	public void setup() {
+		nfn = new NormalizedFileNames();
+	}
+
+	@Test
+	public void should_keep_safe_characters() {
+		assertEquals("Foo$1-x_y.html", nfn.getFileName("Foo$1-x_y.html"));
+	}
+
+	@Test
+	public void should_replace_illegal_characters() {
+		assertEquals("a_b_c", nfn.getFileName("a/b:c"));
+	}
+
+	@Test
+	public void should_map_same_id_to_same_name() {
+		assertEquals("Foo", nfn.getFileName("Foo"));
+		assertEquals("Foo", nfn.getFileName("Foo"));
+	}
+
+	@Test
+	public void should_append_suffixes_in_request_order() {
+		assertEquals("foo", nfn.getFileName("foo"));
+		assertEquals("Foo~1", nfn.getFileName("Foo"));
+		assertEquals("FOO~2", nfn.getFileName("FOO"));
+		assertEquals("f_o", nfn.getFileName("f_o"));
+		assertEquals("f_o~1", nfn.getFileName("f/o"));
+		assertEquals("Foo~1", nfn.getFileName("Foo"));
+	}
+
+	@Test
+	public void should_not_collide_with_suffixed_names() {
+		assertEquals("a", nfn.getFileName("a"));
+		assertEquals("A~1", nfn.getFileName("A"));
+		assertEquals("a_1", nfn.getFileName("a~1"));
+	}
+
+	@Test
+	public void should_keep_reserved_names_for_concurrent_lookups()
+			throws Exception {
+		final List<String> ids = new ArrayList<String>();
+		for (int i = 0; i < 200; i++) {
+			ids.add(i % 2 == 0 ? "Page" + i / 4 : "page" + i / 4);
+		}
+		final List<String> expected = new ArrayList<String>();
+		for (final String id : ids) {
+			expected.add(nfn.getFileName(id));
+		}
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<String>> names = new ArrayList<Future<String>>();
+			for (int i = ids.size() - 1; i >= 0; i--) {
+				final String id = ids.get(i);
+				names.add(0, executor.submit(new Callable<String>() {
+					public String call() {
+						return nfn.getFileName(id);
+					}
+				}));
+			}
+			for (int i = 0; i < ids.size(); i++) {
+				assertEquals(expected.get(i), names.get(i).get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
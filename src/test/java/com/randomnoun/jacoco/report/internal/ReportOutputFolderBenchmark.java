@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.randomnoun.jacoco.report.MemoryMultiReportOutput;
+
+/**
+ * Creates links between two sibling folders of the given depth, like the
+ * links of a page to the pages of another package. <code>jacoco</code> is
+ * the folder of the JaCoCo report library, which compares the paths of both
+ * folders from the root, <code>folder</code> is {@link ReportOutputFolder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportOutputFolderBenchmark {
+
+	@Param({ "1", "3", "8" })
+	public int depth;
+
+	private ReportOutputFolder source;
+
+	private ReportOutputFolder target;
+
+	private org.jacoco.report.internal.ReportOutputFolder jacocoSource;
+
+	private org.jacoco.report.internal.ReportOutputFolder jacocoTarget;
+
+	@Setup
+	public void setup() {
+		source = new ReportOutputFolder(new MemoryMultiReportOutput());
+		jacocoSource = new org.jacoco.report.internal.ReportOutputFolder(
+				new MemoryMultiReportOutput());
+		for (int i = 1; i < depth; i++) {
+			source = source.subFolder("common" + i);
+			jacocoSource = jacocoSource.subFolder("common" + i);
+		}
+		target = source.subFolder("com.example.target");
+		source = source.subFolder("com.example.source");
+		jacocoTarget = jacocoSource.subFolder("com.example.target");
+		jacocoSource = jacocoSource.subFolder("com.example.source");
+	}
+
+	@Benchmark
+	public String folder() {
+		return target.getLink(source, "Target.java.html");
+	}
+
+	@Benchmark
+	public String jacoco() {
+		return jacocoTarget.getLink(jacocoSource, "Target.java.html");
+	}
+
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.randomnoun.jacoco.report.MemoryMultiReportOutput;
+
+/**
+ * Unit tests for {@link ReportOutputFolder}.
+ */
+public class ReportOutputFolderTest {
+
+	private MemoryMultiReportOutput output;
+
+	private ReportOutputFolder root;
+
+	@Before
+	public void setup() {
+		output = new MemoryMultiReportOutput();
+		root = new ReportOutputFolder(output);
+	}
+
+	@Test
+	public void subFolder_should_return_same_instance() {
+		assertSame(root.subFolder("a"), root.subFolder("a"));
+	}
+
+	@Test
+	public void createFile_should_use_folder_path() throws IOException {
+		root.subFolder("a").subFolder("b").createFile("c.html").close();
+		root.createFile("index.html").close();
+		assertEquals("[a/b/c.html, index.html]",
+				output.getWritten().toString());
+	}
+
+	@Test
+	public void getLink_should_link_within_same_folder() {
+		final ReportOutputFolder a = root.subFolder("a");
+		assertEquals("x.html", a.getLink(a, "x.html"));
+		assertEquals("x.html", root.getLink(root, "x.html"));
+	}
+
+	@Test
+	public void getLink_should_link_to_descendants() {
+		final ReportOutputFolder c = root.subFolder("a").subFolder("b")
+				.subFolder("c");
+		assertEquals("a/b/c/x.html", c.getLink(root, "x.html"));
+		assertEquals("b/c/x.html", c.getLink(root.subFolder("a"), "x.html"));
+	}
+
+	@Test
+	public void getLink_should_link_to_ancestors() {
+		final ReportOutputFolder c = root.subFolder("a").subFolder("b")
+				.subFolder("c");
+		assertEquals("../../../x.html", root.getLink(c, "x.html"));
+		assertEquals("../../x.html", root.subFolder("a").getLink(c, "x.html"));
+	}
+
+	@Test
+	public void getLink_should_link_to_siblings() {
+		final ReportOutputFolder a = root.subFolder("a");
+		final ReportOutputFolder b = root.subFolder("b");
+		assertEquals("../b/x.html", b.getLink(a, "x.html"));
+		final ReportOutputFolder ac = a.subFolder("c");
+		final ReportOutputFolder bde = b.subFolder("d").subFolder("e");
+		assertEquals("../../b/d/e/x.html", bde.getLink(ac, "x.html"));
+		assertEquals("../../../a/c/x.html", ac.getLink(bde, "x.html"));
+	}
+
+	@Test
+	public void getLink_should_normalize_names() {
+		final ReportOutputFolder a = root.subFolder("a:b");
+		assertEquals("a_b/x_y.html", a.getLink(root, "x/y.html"));
+		assertEquals("a_b/X_Y.html~1", a.getLink(root, "X:Y.html"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getLink_should_fail_for_different_roots() {
+		final ReportOutputFolder other = new ReportOutputFolder(
+				new MemoryMultiReportOutput());
+		root.subFolder("a").getLink(other.subFolder("a"), "x.html");
+	}
+
+	@Test
+	public void getRootLink_should_link_relative_to_root() {
+		assertEquals("shared/report.css", root.getRootLink("shared/report.css"));
+		assertEquals("../../shared/report.css", root.subFolder("a")
+				.subFolder("b").getRootLink("shared/report.css"));
+		assertEquals("../../other/x.css",
+				root.subFolder("a").getRootLink("../other/x.css"));
+	}
+
+	@Test
+	public void reserve_should_return_link_name() {
+		final ReportOutputFolder a = root.subFolder("a");
+		assertEquals("Foo.html", a.reserve("Foo.html"));
+		assertEquals("foo.html~1", a.reserve("foo.html"));
+		assertEquals("a/foo.html~1", a.getLink(root, "foo.html"));
+	}
+
+}
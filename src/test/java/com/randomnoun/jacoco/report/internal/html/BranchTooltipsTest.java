@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BranchTooltips}.
+ */
+public class BranchTooltipsTest {
+
+	private final BranchTooltips tooltips = new BranchTooltips(Locale.ENGLISH);
+
+	@Test
+	public void getHeat_should_cache_tooltips() {
+		final String tooltip = tooltips.getHeat(1, 2, 3, 6);
+		assertEquals("1 of 6 runs fully covered, 2 partly covered, "
+				+ "3 not covered.", tooltip);
+		assertSame(tooltip, tooltips.getHeat(1, 2, 3, 6));
+	}
+
+	@Test
+	public void getHeat_should_not_mix_up_large_counts() {
+		// both would have the same key if the fields overlapped
+		tooltips.getHeat(0, 1, 0, 65536);
+		assertEquals("0 of 65536 runs fully covered, 0 partly covered, "
+				+ "65536 not covered.", tooltips.getHeat(0, 0, 65536, 65536));
+		tooltips.getHeat(1, 0, 0, 65536);
+		assertEquals("0 of 65536 runs fully covered, 65536 partly covered, "
+				+ "0 not covered.", tooltips.getHeat(0, 65536, 0, 65536));
+	}
+
+}
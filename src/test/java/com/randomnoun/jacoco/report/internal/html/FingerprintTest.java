@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Fingerprint}.
+ */
+public class FingerprintTest {
+
+	@Test
+	public void should_distinguish_value_boundaries() {
+		assertNotEquals(new Fingerprint().add("ab").add("c").toHex(),
+				new Fingerprint().add("a").add("bc").toHex());
+		assertNotEquals(new Fingerprint().add((String) null).toHex(),
+				new Fingerprint().add("").toHex());
+		assertNotEquals(new Fingerprint().add(1).toHex(),
+				new Fingerprint().add(256).toHex());
+	}
+
+	@Test
+	public void add_reader_should_copy_text() throws IOException {
+		final String text = source(20000);
+		final StringWriter copy = new StringWriter();
+		new Fingerprint().add(new StringReader(text), copy);
+		assertEquals(text, copy.toString());
+	}
+
+	@Test
+	public void add_reader_should_not_depend_on_read_sizes()
+			throws IOException {
+		final String text = source(20000);
+		final String expected = new Fingerprint().add(1)
+				.add(new StringReader(text), new StringWriter()).toHex();
+		final Reader slow = new StringReader(text) {
+			@Override
+			public int read(final char[] cbuf, final int off, final int len)
+					throws IOException {
+				return super.read(cbuf, off, Math.min(len, 7));
+			}
+		};
+		assertEquals(expected,
+				new Fingerprint().add(1).add(slow, new StringWriter()).toHex());
+		assertNotEquals(expected, new Fingerprint().add(1)
+				.add(new StringReader(text + " "), new StringWriter())
+				.toHex());
+	}
+
+	private static String source(final int length) {
+		final StringBuilder sb = new StringBuilder();
+		while (sb.length() < length) {
+			sb.append("int größe = ").append(sb.length()).append(";\n");
+		}
+		return sb.toString();
+	}
+
+}
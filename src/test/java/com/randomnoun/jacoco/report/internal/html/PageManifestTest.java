@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.randomnoun.jacoco.report.MemoryMultiReportOutput;
+import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
+
+/**
+ * Unit tests for {@link PageManifest}.
+ */
+public class PageManifestTest {
+
+	private static final List<String> FILES = Arrays.asList("A.html",
+			"A.js");
+
+	private MemoryMultiReportOutput output;
+
+	private ReportOutputFolder root;
+
+	private ReportOutputFolder folder;
+
+	@Before
+	public void setup() throws IOException {
+		output = new MemoryMultiReportOutput();
+		root = new ReportOutputFolder(output);
+		folder = root.subFolder("p");
+		// previous report with both files of the page
+		final PageManifest manifest = PageManifest.load(root, "settings");
+		assertFalse(manifest.isUnchanged(folder, FILES, "f1"));
+		folder.createFile("A.html").close();
+		folder.createFile("A.js").close();
+		manifest.write();
+	}
+
+	@Test
+	public void write_should_record_every_file() {
+		assertEquals("f1 p/A.html\nf1 p/A.js\n",
+				output.getFiles().get(PageManifest.MANIFEST));
+	}
+
+	@Test
+	public void load_should_remove_previous_manifest() throws IOException {
+		PageManifest.load(root, "settings");
+		assertEquals("", output.getFiles().get(PageManifest.MANIFEST));
+	}
+
+	@Test
+	public void isUnchanged_should_accept_same_fingerprint()
+			throws IOException {
+		final PageManifest manifest = PageManifest.load(root, "settings");
+		assertTrue(manifest.isUnchanged(folder, FILES, "f1"));
+	}
+
+	@Test
+	public void isUnchanged_should_reject_other_fingerprint()
+			throws IOException {
+		final PageManifest manifest = PageManifest.load(root, "settings");
+		assertFalse(manifest.isUnchanged(folder, FILES, "f2"));
+	}
+
+	@Test
+	public void isUnchanged_should_reject_missing_file() throws IOException {
+		output.delete("p/A.js");
+		final PageManifest manifest = PageManifest.load(root, "settings");
+		assertFalse(manifest.isUnchanged(folder, FILES, "f1"));
+	}
+
+	@Test
+	public void isUnchanged_should_reject_new_file() throws IOException {
+		final PageManifest manifest = PageManifest.load(root, "settings");
+		assertFalse(manifest.isUnchanged(folder,
+				Arrays.asList("A.html", "A.js", "A.css"), "f1"));
+	}
+
+	@Test
+	public void interrupted_report_should_render_all_pages()
+			throws IOException {
+		PageManifest.load(root, "settings");
+		// no write(), the next report finds an empty manifest
+		final PageManifest manifest = PageManifest.load(root, "settings");
+		assertFalse(manifest.isUnchanged(folder, FILES, "f1"));
+	}
+
+}
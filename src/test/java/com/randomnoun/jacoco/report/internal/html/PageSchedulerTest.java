@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PageScheduler}.
+ */
+public class PageSchedulerTest {
+
+	@Test
+	public void invokeBlocking_should_return_results_in_task_order()
+			throws IOException {
+		try (PageScheduler scheduler = new PageScheduler(1, 4)) {
+			final List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+			for (int i = 0; i < 50; i++) {
+				final int value = i;
+				tasks.add(() -> {
+					Thread.sleep(50 - value);
+					return Integer.valueOf(value);
+				});
+			}
+			final List<Integer> results = scheduler.invokeBlocking(tasks);
+			for (int i = 0; i < 50; i++) {
+				assertEquals(Integer.valueOf(i), results.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void invokeBlocking_should_limit_running_tasks()
+			throws IOException {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		try (PageScheduler scheduler = new PageScheduler(1, 3)) {
+			final List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+			for (int i = 0; i < 20; i++) {
+				tasks.add(() -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(),
+							Math::max);
+					Thread.sleep(5);
+					running.decrementAndGet();
+					return null;
+				});
+			}
+			scheduler.invokeBlocking(tasks);
+		}
+		assertTrue(maxRunning.get() <= 3);
+	}
+
+	@Test
+	public void invokeBlocking_should_throw_task_failure() {
+		try (PageScheduler scheduler = new PageScheduler(1, 2)) {
+			final List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+			tasks.add(() -> null);
+			tasks.add(() -> {
+				throw new IOException("broken");
+			});
+			scheduler.invokeBlocking(tasks);
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertEquals("broken", e.getMessage());
+		}
+	}
+
+}
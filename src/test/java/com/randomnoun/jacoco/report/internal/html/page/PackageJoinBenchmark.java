@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html.page;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.internal.analysis.BundleCoverageImpl;
+import org.jacoco.core.internal.analysis.PackageCoverageImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scaling of the package join of {@link BundlePage} with the number of
+ * packages and bundles. <code>lookup</code> is the previous join, which
+ * searched every other bundle for each package of the first bundle,
+ * <code>join</code> is {@link NodeJoin}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackageJoinBenchmark {
+
+	@Param({ "100", "1000", "4000" })
+	public int packageCount;
+
+	@Param({ "2", "12" })
+	public int bundleCount;
+
+	private IBundleCoverage[] bundles;
+
+	@Setup
+	public void setup() {
+		bundles = new IBundleCoverage[bundleCount];
+		for (int b = 0; b < bundleCount; b++) {
+			final List<IPackageCoverage> packages = new ArrayList<IPackageCoverage>();
+			for (int p = 0; p < packageCount; p++) {
+				packages.add(new PackageCoverageImpl("com/example/p" + p,
+						Collections.<IClassCoverage> emptyList(),
+						Collections.<ISourceFileCoverage> emptyList()));
+			}
+			// every bundle lists its packages in a different order
+			Collections.shuffle(packages, new java.util.Random(b));
+			bundles[b] = new BundleCoverageImpl("run" + b, packages);
+		}
+	}
+
+	@Benchmark
+	public List<IPackageCoverage[]> lookup() {
+		final List<IPackageCoverage[]> rows = new ArrayList<IPackageCoverage[]>();
+		for (final IPackageCoverage p : bundles[0].getPackages()) {
+			final String name = p.getName();
+			final IPackageCoverage[] row = new IPackageCoverage[bundles.length];
+			row[0] = p;
+			for (int i = 1; i < bundles.length; i++) {
+				row[i] = bundles[i].getPackages().stream()
+						.filter(other -> other.getName().equals(name))
+						.findFirst().orElse(null);
+			}
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	@Benchmark
+	public List<IPackageCoverage[]> join() {
+		return NodeJoin.join(bundles, IBundleCoverage::getPackages,
+				NodeJoin.BY_NAME, IPackageCoverage[]::new);
+	}
+
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html.page;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Locale;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+import org.jacoco.core.internal.analysis.BundleCoverageImpl;
+import org.jacoco.core.internal.analysis.CounterImpl;
+import org.jacoco.core.internal.analysis.SourceFileCoverageImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.randomnoun.jacoco.report.internal.html.BranchTooltips;
+import com.randomnoun.jacoco.report.internal.html.HTMLElement;
+
+/**
+ * Unit tests for {@link SourceHighlighter}.
+ */
+public class SourceHighlighterTest {
+
+	private static final int LINES = 40000;
+
+	private static final int RUNS = 10;
+
+	/**
+	 * Bytes which may be allocated per line besides reading the line, which
+	 * covers the span element of the source code. Markers must not allocate.
+	 */
+	private static final long BYTES_PER_LINE = 96;
+
+	private IBundleCoverage[] bundles;
+
+	private ISourceNode[] sources;
+
+	private String contents;
+
+	@Before
+	public void setup() {
+		bundles = new IBundleCoverage[RUNS];
+		sources = new ISourceNode[RUNS];
+		for (int run = 0; run < RUNS; run++) {
+			bundles[run] = new BundleCoverageImpl("run" + run,
+					Collections.<IPackageCoverage> emptyList());
+			final SourceFileCoverageImpl source = new SourceFileCoverageImpl(
+					"Generated.java", "p");
+			// every other line has code, some runs have no coverage at all
+			for (int line = 1; line <= LINES; line += 2) {
+				final int covered = (line + run) % 3;
+				source.increment(CounterImpl.getInstance(2 - covered, covered),
+						line % 4 == 1 ? CounterImpl.getInstance(covered, 2 - covered)
+								: CounterImpl.COUNTER_0_0,
+						line);
+			}
+			sources[run] = source;
+		}
+		final StringBuilder sb = new StringBuilder();
+		for (int line = 1; line <= LINES; line++) {
+			sb.append("\tvalue").append(line).append(" = compute();\n");
+		}
+		contents = sb.toString();
+	}
+
+	@Test
+	public void render_should_not_allocate_per_marker() throws IOException {
+		final com.sun.management.ThreadMXBean threads = getThreadMXBean();
+		final SourceHighlighter highlighter = new SourceHighlighter(
+				new BranchTooltips(Locale.ENGLISH));
+		final long thread = Thread.currentThread().getId();
+
+		// fills the tooltip cache and compiles the hot path
+		for (int i = 0; i < 3; i++) {
+			render(highlighter);
+			readLines();
+		}
+
+		long start = threads.getThreadAllocatedBytes(thread);
+		readLines();
+		final long reading = threads.getThreadAllocatedBytes(thread) - start;
+
+		start = threads.getThreadAllocatedBytes(thread);
+		render(highlighter);
+		final long rendering = threads.getThreadAllocatedBytes(thread) - start;
+
+		final long budget = reading + LINES * BYTES_PER_LINE;
+		assertTrue(String.format("allocated %,d bytes, budget %,d bytes",
+				Long.valueOf(rendering), Long.valueOf(budget)),
+				rendering < budget);
+	}
+
+	private void render(final SourceHighlighter highlighter)
+			throws IOException {
+		final HTMLElement html = new HTMLElement(new NullOutputStream(),
+				"UTF-8");
+		highlighter.render(html.body(), bundles, sources,
+				new StringReader(contents));
+		html.close();
+	}
+
+	private void readLines() throws IOException {
+		final BufferedReader reader = new BufferedReader(
+				new StringReader(contents));
+		while (reader.readLine() != null) {
+			// only the allocation of the lines is measured
+		}
+	}
+
+	private static com.sun.management.ThreadMXBean getThreadMXBean() {
+		final java.lang.management.ThreadMXBean bean = ManagementFactory
+				.getThreadMXBean();
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		assumeTrue(threads.isThreadAllocatedMemorySupported()
+				&& threads.isThreadAllocatedMemoryEnabled());
+		return threads;
+	}
+
+	private static class NullOutputStream extends OutputStream {
+
+		@Override
+		public void write(final int b) {
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+		}
+
+	}
+
+}
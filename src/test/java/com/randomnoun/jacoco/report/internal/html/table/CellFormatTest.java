@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Random;
+
+import org.jacoco.core.analysis.CoverageNodeImpl;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
+import org.jacoco.core.analysis.ICoverageNode.ElementType;
+import org.junit.Test;
+
+import com.randomnoun.jacoco.report.internal.html.HTMLElement;
+
+/**
+ * Unit tests for {@link CellFormat}. The texts are compared with the
+ * {@link NumberFormat} based formatting the columns used before.
+ */
+public class CellFormatTest {
+
+	private static final Locale[] LOCALES = { Locale.ENGLISH, Locale.GERMAN,
+			Locale.FRENCH, Locale.forLanguageTag("de-CH"),
+			Locale.forLanguageTag("ar-EG"), Locale.forLanguageTag("hi-IN") };
+
+	@Test
+	public void formatInteger_should_match_number_format() {
+		final int[] values = { 0, 1, 999, 1000, 1023, 1024, 1025, 99999,
+				1234567, Integer.MAX_VALUE, -1, Integer.MIN_VALUE };
+		for (final Locale locale : LOCALES) {
+			final CellFormat format = new CellFormat(locale);
+			final NumberFormat expected = NumberFormat
+					.getIntegerInstance(locale);
+			for (final int value : values) {
+				assertEquals(locale + " " + value, expected.format(value),
+						format.formatInteger(value));
+			}
+		}
+	}
+
+	@Test
+	public void formatPercentage_should_match_rounded_down_number_format() {
+		final int[][] ratios = { { 0, 1 }, { 1, 1 }, { 1, 3 }, { 2, 3 },
+				{ 199, 200 }, { 9999, 10000 }, { 1, 1024 }, { 1023, 1024 },
+				{ 1024, 1025 }, { 7, 100 }, { 29, 100 }, { 57, 100 },
+				{ Integer.MAX_VALUE - 1, Integer.MAX_VALUE },
+				{ 1, Integer.MAX_VALUE } };
+		for (final Locale locale : LOCALES) {
+			final CellFormat format = new CellFormat(locale);
+			for (final int[] ratio : ratios) {
+				assertPercentage(locale, format, ratio[0], ratio[1]);
+			}
+			final Random random = new Random(locale.hashCode());
+			for (int i = 0; i < 10000; i++) {
+				final int total = 1 + random.nextInt(i % 2 == 0 ? 2000
+						: Integer.MAX_VALUE);
+				assertPercentage(locale, format, random.nextInt(total + 1),
+						total);
+			}
+		}
+	}
+
+	@Test
+	public void formatPercentage_should_round_down() {
+		final CellFormat format = new CellFormat(Locale.ENGLISH);
+		assertEquals("99%", format.formatPercentage(199, 200));
+		assertEquals("99%", format.formatPercentage(9999, 10000));
+		assertEquals("0%", format.formatPercentage(1, 1024));
+		assertEquals("100%", format.formatPercentage(1024, 1024));
+	}
+
+	@Test
+	public void percentage_column_should_show_na_for_empty_counters()
+			throws IOException {
+		final PercentageColumn column = new PercentageColumn(0,
+				CounterEntity.BRANCH, Locale.ENGLISH);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final HTMLElement html = new HTMLElement(out, "UTF-8");
+		column.footer(html.body(), new ICoverageNode[] {
+				new CoverageNodeImpl(ElementType.PACKAGE, "p") }, null, null);
+		html.close();
+		final String text = new String(out.toByteArray(),
+				StandardCharsets.UTF_8);
+		assertTrue(text, text.contains("<body>n/a</body>"));
+	}
+
+	private static void assertPercentage(final Locale locale,
+			final CellFormat format, final int covered, final int total) {
+		final String expected = NumberFormat.getPercentInstance(locale)
+				.format(BigDecimal.valueOf((double) covered / total)
+						.setScale(2, RoundingMode.FLOOR));
+		assertEquals(locale + " " + covered + "/" + total, expected,
+				format.formatPercentage(covered, total));
+	}
+
+}
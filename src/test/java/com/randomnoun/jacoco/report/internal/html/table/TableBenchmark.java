@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html.table;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.jacoco.core.analysis.CoverageNodeImpl;
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
+import org.jacoco.core.analysis.ICoverageNode.ElementType;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.internal.analysis.BundleCoverageImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.randomnoun.jacoco.report.CoverageFixture;
+import com.randomnoun.jacoco.report.MemoryMultiReportOutput;
+import com.randomnoun.jacoco.report.html.HTMLFormatter;
+import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
+import com.randomnoun.jacoco.report.internal.html.HTMLElement;
+import com.randomnoun.jacoco.report.internal.html.resources.Resources;
+
+/**
+ * Renders the coverage table of a package page with many classes and runs,
+ * with the same columns as {@link HTMLFormatter}. With shared indexes the rows
+ * are sorted once for every distinct column comparator, otherwise once for
+ * every column.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableBenchmark {
+
+	@Param({ "2000" })
+	public int rowCount;
+
+	@Param({ "1", "20" })
+	public int runCount;
+
+	@Param({ "true", "false" })
+	public boolean shareIndexes;
+
+	private Table table;
+
+	private List<ITableItem> items;
+
+	private ICoverageNode[] total;
+
+	private Resources resources;
+
+	private ReportOutputFolder folder;
+
+	@Setup
+	public void setup() {
+		final IBundleCoverage[] bundles = new IBundleCoverage[runCount];
+		total = new ICoverageNode[runCount];
+		for (int run = 0; run < runCount; run++) {
+			bundles[run] = new BundleCoverageImpl("run" + run,
+					Collections.<IPackageCoverage> emptyList());
+			total[run] = new CoverageNodeImpl(ElementType.PACKAGE, "p");
+		}
+		items = new ArrayList<ITableItem>();
+		for (int row = 0; row < rowCount; row++) {
+			final ICoverageNode[] nodes = new ICoverageNode[runCount];
+			for (int run = 0; run < runCount; run++) {
+				nodes[run] = CoverageFixture.newClass("p/C" + row, run);
+				((CoverageNodeImpl) total[run]).increment(nodes[run]);
+			}
+			items.add(new Item(nodes));
+		}
+		table = createTable(runCount, shareIndexes);
+		folder = new ReportOutputFolder(new MemoryMultiReportOutput());
+		resources = new Resources(folder);
+	}
+
+	private static Table createTable(final int runCount,
+			final boolean shareIndexes) {
+		final Locale locale = Locale.ENGLISH;
+		final Table table = new Table(shareIndexes);
+		table.add("", "Element", null, new LabelColumn(), false);
+		for (final CounterEntity entity : new CounterEntity[] {
+				CounterEntity.INSTRUCTION, CounterEntity.BRANCH }) {
+			for (int run = 0; run < runCount; run++) {
+				table.add("run" + run, "Missed", null,
+						new BarColumn(run, entity, locale),
+						run == 0 && entity == CounterEntity.INSTRUCTION);
+				table.add("", "Cov.", null,
+						new PercentageColumn(run, entity, locale), false);
+			}
+		}
+		for (final CounterEntity entity : new CounterEntity[] {
+				CounterEntity.COMPLEXITY, CounterEntity.LINE,
+				CounterEntity.METHOD, CounterEntity.CLASS }) {
+			for (int run = 0; run < runCount; run++) {
+				table.add("run" + run, "Missed", null,
+						CounterColumn.newMissed(run, entity, locale), false);
+				table.add("", "Total", null,
+						CounterColumn.newTotal(run, entity, locale), false);
+			}
+		}
+		return table;
+	}
+
+	@Benchmark
+	public void render() throws IOException {
+		final HTMLElement html = new HTMLElement(new NullOutputStream(),
+				"UTF-8");
+		table.render(html.body(), items, total, resources, folder);
+		html.close();
+	}
+
+	private static class Item implements ITableItem {
+
+		private final ICoverageNode[] nodes;
+
+		Item(final ICoverageNode[] nodes) {
+			this.nodes = nodes;
+		}
+
+		public ICoverageNode[] getNodes() {
+			return nodes;
+		}
+
+		public String getLink(final ReportOutputFolder base) {
+			return nodes[0].getName() + ".html";
+		}
+
+		public String getLinkLabel() {
+			return nodes[0].getName();
+		}
+
+		public String getLinkStyle() {
+			return null;
+		}
+
+	}
+
+	private static class NullOutputStream extends OutputStream {
+
+		@Override
+		public void write(final int b) {
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+		}
+
+	}
+
+}
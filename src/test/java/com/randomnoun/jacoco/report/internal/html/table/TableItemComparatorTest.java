@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.html.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.jacoco.core.analysis.CoverageNodeImpl;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
+import org.jacoco.core.analysis.ICoverageNode.ElementType;
+import org.jacoco.core.internal.analysis.CounterImpl;
+import org.junit.Test;
+
+import com.randomnoun.jacoco.report.internal.ReportOutputFolder;
+
+/**
+ * Unit tests for {@link TableItemComparator}.
+ */
+public class TableItemComparatorTest {
+
+	@Test
+	public void should_compare_counters_of_first_bundle() {
+		// the order of the rows in bundle 1 is the reverse of bundle 0
+		final ITableItem a = item(node(1, 5), node(4, 5));
+		final ITableItem b = item(node(4, 5), node(1, 5));
+		final ITableItem c = item(null, node(2, 5));
+		final List<ITableItem> items = Arrays.asList(a, b, c);
+
+		final TableItemComparator missed = new TableItemComparator(
+				TableItemComparator.Ordering.MISSED,
+				CounterEntity.INSTRUCTION);
+		assertTrue(missed.compare(a, b) > 0);
+		// missing nodes have empty counters
+		assertTrue(missed.compare(c, a) > 0);
+
+		final CounterMatrix counters = new CounterMatrix();
+		counters.init(items, 2);
+		for (int i = 0; i < items.size(); i++) {
+			for (int j = 0; j < items.size(); j++) {
+				assertEquals(Integer.signum(missed.compare(items.get(i),
+						items.get(j))),
+						Integer.signum(missed.compare(counters, i, j)));
+			}
+		}
+	}
+
+	@Test
+	public void should_be_equal_for_same_ordering_and_entity() {
+		final TableItemComparator c = new TableItemComparator(
+				TableItemComparator.Ordering.BAR, CounterEntity.LINE);
+		final TableItemComparator same = new TableItemComparator(
+				TableItemComparator.Ordering.BAR, CounterEntity.LINE);
+		assertEquals(c, same);
+		assertEquals(c.hashCode(), same.hashCode());
+		assertNotEquals(c, new TableItemComparator(
+				TableItemComparator.Ordering.TOTAL, CounterEntity.LINE));
+		assertNotEquals(c, new TableItemComparator(
+				TableItemComparator.Ordering.BAR, CounterEntity.BRANCH));
+	}
+
+	@Test
+	public void columns_of_all_runs_should_share_comparators() {
+		final Locale locale = Locale.ENGLISH;
+		assertEquals(new BarColumn(0, CounterEntity.LINE, locale)
+				.getComparator(),
+				new BarColumn(3, CounterEntity.LINE, locale).getComparator());
+		assertEquals(CounterColumn.newMissed(0, CounterEntity.METHOD, locale)
+				.getComparator(),
+				CounterColumn.newMissed(3, CounterEntity.METHOD, locale)
+						.getComparator());
+	}
+
+	private static ICoverageNode node(final int missed, final int total) {
+		return new CoverageNodeImpl(ElementType.CLASS, "Foo") {
+			{
+				instructionCounter = CounterImpl.getInstance(missed,
+						total - missed);
+			}
+		};
+	}
+
+	private static ITableItem item(final ICoverageNode... nodes) {
+		return new ITableItem() {
+			public ICoverageNode[] getNodes() {
+				return nodes;
+			}
+
+			public String getLink(final ReportOutputFolder base) {
+				return null;
+			}
+
+			public String getLinkLabel() {
+				return "item";
+			}
+
+			public String getLinkStyle() {
+				return null;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.xml;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Writes a document the way {@link XMLElement} does, in many small pieces
+ * and single characters. <code>plain</code> is the previous unbuffered
+ * {@link OutputStreamWriter}, <code>buffered</code> the
+ * {@link BufferedWriter} used for other encodings and <code>utf8</code> is
+ * {@link UTF8Writer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UTF8WriterBenchmark {
+
+	/** Number of elements written per document */
+	private static final int ELEMENTS = 10000;
+
+	@Param({ "ascii", "mixed" })
+	public String text;
+
+	@Benchmark
+	public void plain(final Blackhole blackhole) throws IOException {
+		write(new OutputStreamWriter(new NullOutputStream(blackhole),
+				StandardCharsets.UTF_8));
+	}
+
+	@Benchmark
+	public void buffered(final Blackhole blackhole) throws IOException {
+		write(new BufferedWriter(new OutputStreamWriter(
+				new NullOutputStream(blackhole), StandardCharsets.UTF_8)));
+	}
+
+	@Benchmark
+	public void utf8(final Blackhole blackhole) throws IOException {
+		write(new UTF8Writer(new NullOutputStream(blackhole)));
+	}
+
+	private void write(final Writer writer) throws IOException {
+		final String value = "ascii".equals(text) ? "com/example/Foo"
+				: "com/example/Größe€";
+		for (int i = 0; i < ELEMENTS; i++) {
+			writer.write('<');
+			writer.write("line");
+			writer.write(' ');
+			writer.write("nr");
+			writer.write('=');
+			writer.write('"');
+			writer.write(Integer.toString(i));
+			writer.write('"');
+			writer.write(' ');
+			writer.write("name");
+			writer.write("=\"");
+			writer.write(value);
+			writer.write('"');
+			writer.write("/>");
+		}
+		writer.close();
+	}
+
+	private static class NullOutputStream extends OutputStream {
+
+		private final Blackhole blackhole;
+
+		NullOutputStream(final Blackhole blackhole) {
+			this.blackhole = blackhole;
+		}
+
+		@Override
+		public void write(final int b) {
+			blackhole.consume(b);
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+			blackhole.consume(b);
+		}
+
+	}
+
+}
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.xml;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link UTF8Writer}. The output is compared byte by byte with
+ * the output of an {@link OutputStreamWriter}.
+ */
+public class UTF8WriterTest {
+
+	/** Size of the internal buffer of the writer */
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+	private interface Writes {
+		void writeTo(Writer writer) throws IOException;
+	}
+
+	@Test
+	public void should_encode_ascii() throws IOException {
+		assertSameOutput("<report name=\"a &amp; b\"/>\n");
+	}
+
+	@Test
+	public void should_encode_two_and_three_byte_characters()
+			throws IOException {
+		assertSameOutput("äöü ß ߿ ࠀ € ￿");
+	}
+
+	@Test
+	public void should_encode_surrogate_pairs() throws IOException {
+		assertSameOutput("a😀b􏿿𐀀");
+	}
+
+	@Test
+	public void should_encode_surrogate_pair_split_across_writes()
+			throws IOException {
+		assertSameOutput(writer -> {
+			writer.write("x\ud83d");
+			writer.write('\ude00');
+			writer.write(new char[] { '\ud83d' });
+			writer.write("\ude00y");
+		});
+	}
+
+	@Test
+	public void should_replace_unpaired_surrogates() throws IOException {
+		assertSameOutput("a\ude00b");
+		assertSameOutput("a\ud83db");
+		assertSameOutput("a\ud83d😀");
+		assertSameOutput("\ude00\ud83d");
+		assertSameOutput("end\ud83d");
+	}
+
+	@Test
+	public void should_keep_pending_surrogate_on_flush() throws IOException {
+		assertSameOutput(writer -> {
+			writer.write("a\ud83d");
+			writer.flush();
+			writer.write("\ude00b");
+		});
+	}
+
+	@Test
+	public void should_encode_multibyte_characters_at_buffer_boundaries()
+			throws IOException {
+		for (int offset = -5; offset <= 5; offset++) {
+			final StringBuilder s = new StringBuilder();
+			for (int i = 0; i < BUFFER_SIZE + offset; i++) {
+				s.append('a');
+			}
+			s.append("€😀ä😀b");
+			final String str = s.toString();
+			assertSameOutput(str);
+			assertSameOutput(writer -> writer.write(str.toCharArray()));
+			assertSameOutput(writer -> {
+				for (int i = 0; i < str.length(); i++) {
+					writer.write(str.charAt(i));
+				}
+			});
+		}
+	}
+
+	@Test
+	public void should_encode_random_text_in_random_pieces()
+			throws IOException {
+		final Random random = new Random(42);
+		final char[] alphabet = { 'a', '<', '\n', 'ä', '߿',
+				'ࠀ', '€', '\ud83d', '\ude00', '\udbff', '\udfff' };
+		final char[] text = new char[3 * BUFFER_SIZE];
+		for (int i = 0; i < text.length; i++) {
+			// mostly ASCII, like the reports
+			text[i] = random.nextInt(4) == 0
+					? alphabet[random.nextInt(alphabet.length)]
+					: (char) ('a' + random.nextInt(26));
+		}
+		final String str = new String(text);
+		for (int seed = 0; seed < 10; seed++) {
+			final Random pieces = new Random(seed);
+			final int[] lengths = new int[text.length];
+			for (int i = 0; i < lengths.length; i++) {
+				lengths[i] = 1 + pieces.nextInt(seed % 2 == 0 ? 8 : 5000);
+			}
+			assertSameOutput(writer -> {
+				int pos = 0;
+				for (int i = 0; pos < text.length; i++) {
+					final int len = Math.min(lengths[i], text.length - pos);
+					switch (i % 3) {
+					case 0:
+						writer.write(str, pos, len);
+						break;
+					case 1:
+						writer.write(text, pos, len);
+						break;
+					default:
+						for (int k = pos; k < pos + len; k++) {
+							writer.write(text[k]);
+						}
+					}
+					pos += len;
+				}
+			});
+		}
+	}
+
+	@Test
+	public void should_reject_writes_after_close() throws IOException {
+		final Writer writer = new UTF8Writer(new ByteArrayOutputStream());
+		writer.close();
+		writer.close();
+		try {
+			writer.write("a");
+			fail("IOException expected");
+		} catch (final IOException e) {
+			// expected
+		}
+	}
+
+	private void assertSameOutput(final String str) throws IOException {
+		assertSameOutput(writer -> writer.write(str));
+	}
+
+	private void assertSameOutput(final Writes writes) throws IOException {
+		final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		final Writer reference = new OutputStreamWriter(expected,
+				StandardCharsets.UTF_8);
+		writes.writeTo(reference);
+		reference.close();
+
+		final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		final Writer writer = new UTF8Writer(actual);
+		writes.writeTo(writer);
+		writer.close();
+
+		assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+	}
+
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2024 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package com.randomnoun.jacoco.report.internal.xml;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link XMLElement}.
+ */
+public class XMLElementTest {
+
+	@Test
+	public void text_should_quote_markup() throws IOException {
+		assertEquals("<r>&lt;a&gt; &amp; &quot;b&quot; ?=~ä</r>",
+				write(null, "<a> & \"b\" ?=~ä"));
+		assertEquals("<r>&amp;&amp;x&lt;</r>", write(null, "&&x<"));
+	}
+
+	@Test
+	public void text_should_write_plain_text_unchanged() throws IOException {
+		assertEquals("<r>plain text ;:=? €</r>",
+				write(null, "plain text ;:=? €"));
+	}
+
+	@Test
+	public void attr_should_quote_markup() throws IOException {
+		assertEquals("<r a=\"&lt;&amp;&quot;&gt;=\"/>", write("<&\">=", null));
+	}
+
+	private static String write(final String attr, final String text)
+			throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final XMLElement root = new XMLElement("r", null, null, false,
+				"UTF-8", out);
+		root.attr("a", attr);
+		if (text != null) {
+			root.text(text);
+		}
+		root.close();
+		final String xml = new String(out.toByteArray(),
+				StandardCharsets.UTF_8);
+		return xml.substring(xml.indexOf("?>") + 2);
+	}
+
+}